@@ -6,14 +6,13 @@
  * ******************************************************/
 package algorithms;
 
-import robotsimulator.Brain;
 import characteristics.Parameters;
 import characteristics.IFrontSensorResult;
 import characteristics.IRadarResult;
 
 import java.util.ArrayList;
 
-public class A_main extends Brain {
+public class A_main extends ThrottledBrain {
   //---PARAMETERS---//
   private static final double ANGLEPRECISION = 0.01;
   private static final double FIREANGLEPRECISION = Math.PI/(double)6;
@@ -29,6 +28,10 @@ public class A_main extends Brain {
   private static final int ROGER = 0x0C0C0C0C;
   private static final int OVER = 0xC00010FF;
 
+  private static final int FIREBROADCASTPERIOD = 5; //ticks between two FIRE orders
+  private static final double FIREBROADCASTMINMOVE = 30; //target must move that much to be re-sent...
+  private static final int FIREBROADCASTREFRESH = 50; //...unless the last order is that old
+
   private static final int TURNSOUTHTASK = 1;
   private static final int MOVETASK = 2;
   private static final int TURNLEFTTASK = 3;
@@ -46,6 +49,7 @@ public class A_main extends Brain {
   private boolean fireOrder;
   private boolean freeze;
   private boolean friendlyFire;
+  private final ArrayList<String> messages = new ArrayList<String>(); //refilled every step
 
   //---CONSTRUCTORS---//
   public A_main() { super(); }
@@ -70,6 +74,9 @@ public class A_main extends Brain {
       myY=Parameters.teamAMainBot3InitY;
     }
 
+    //COMMUNICATION: one FIRE order per topic per tick, rate limited
+    setBroadcastLimiter(new BroadcastLimiter(':',3).limit(FIREBROADCASTPERIOD,FIREBROADCASTMINMOVE,FIREBROADCASTREFRESH,3,4));
+
     //INIT
     state=TURNSOUTHTASK;
     isMoving=false;
@@ -100,7 +107,7 @@ public class A_main extends Brain {
     if (debug && fireOrder) sendLogMessage("Firing enemy!!");
 
     //COMMUNICATION
-    ArrayList<String> messages=fetchAllMessages();
+    fetchAllMessagesInto(messages);
     for (String m: messages) if (Integer.parseInt(m.split(":")[1])==whoAmI || Integer.parseInt(m.split(":")[1])==TEAM) process(m);
     
     //RADAR DETECTION
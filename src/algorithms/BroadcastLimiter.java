@@ -0,0 +1,186 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces and rate-limits the outgoing broadcasts of one brain.
+ *
+ * A message's topic is its first {@code topicFields} fields (split on {@code separator}).
+ * Within a tick only the latest message per topic is kept; at flush time a topic is sent
+ * only if {@code minInterval} ticks passed since its last send and, when the policy names
+ * an x/y field pair, the point moved at least {@code minChange} since then (or the last
+ * send is older than the policy's refresh period).
+ * Messages with fewer fields than the topic needs are passed through unchanged.
+ */
+public final class BroadcastLimiter {
+
+    private static final class Policy {
+        final int minInterval;
+        final double minChange;
+        final int refresh;
+        final int xField, yField;
+
+        Policy(int minInterval, double minChange, int refresh, int xField, int yField) {
+            this.minInterval = minInterval;
+            this.minChange = minChange;
+            this.refresh = refresh;
+            this.xField = xField;
+            this.yField = yField;
+        }
+    }
+
+    private static final class Topic {
+        final Policy policy;
+        String pending;
+        double lastX = Double.NaN, lastY = Double.NaN;
+        int lastSent = Integer.MIN_VALUE / 2;
+
+        Topic(Policy policy) {
+            this.policy = policy;
+        }
+    }
+
+    private static final Policy PASS = new Policy(0, 0, 0, -1, -1);
+
+    private final char separator;
+    private final int topicFields;
+    private Policy defaultPolicy = PASS;
+    private final HashMap<String, Policy> overrides = new HashMap<>();
+    private final HashMap<String, Topic> topics = new HashMap<>();
+    private final ArrayList<Topic> pendingTopics = new ArrayList<>();
+    private final ArrayList<String> passThrough = new ArrayList<>();
+
+    // ===== COUNTERS =====
+    private int offered = 0;
+    private int sent = 0;
+    private int coalesced = 0;
+    private int suppressed = 0;
+
+    public BroadcastLimiter(char separator, int topicFields) {
+        this.separator = separator;
+        this.topicFields = topicFields;
+    }
+
+    /**
+     * Policy for every topic without an override. x/y field indices of -1 disable the change
+     * check; a positive {@code refresh} re-sends an unchanged point after that many ticks.
+     */
+    public BroadcastLimiter limit(int minInterval, double minChange, int refresh, int xField, int yField) {
+        defaultPolicy = new Policy(minInterval, minChange, refresh, xField, yField);
+        return this;
+    }
+
+    public BroadcastLimiter limit(String topic, int minInterval, double minChange, int refresh, int xField, int yField) {
+        overrides.put(topic, new Policy(minInterval, minChange, refresh, xField, yField));
+        return this;
+    }
+
+    /** Topic whose messages are never coalesced nor delayed (e.g. blackboard deltas). */
+    public BroadcastLimiter unlimited(String topic) {
+        overrides.put(topic, PASS);
+        return this;
+    }
+
+    public void offer(String message) {
+        offered++;
+        int end = fieldEnd(message, topicFields - 1);
+        if (end < 0) {
+            passThrough.add(message);
+            return;
+        }
+        String key = message.substring(0, end);
+        Topic t = topics.get(key);
+        if (t == null) {
+            Policy p = overrides.get(key);
+            t = new Topic(p != null ? p : defaultPolicy);
+            topics.put(key, t);
+        }
+        if (t.policy == PASS) {
+            passThrough.add(message);
+            return;
+        }
+        if (t.pending != null) coalesced++;
+        else pendingTopics.add(t);
+        t.pending = message;
+    }
+
+    /** Sends what survives the policies for this tick, in first-offered order. */
+    public void flush(int tick, Consumer<String> out) {
+        for (int i = 0; i < passThrough.size(); i++) {
+            out.accept(passThrough.get(i));
+            sent++;
+        }
+        passThrough.clear();
+
+        for (int i = 0; i < pendingTopics.size(); i++) {
+            Topic t = pendingTopics.get(i);
+            String msg = t.pending;
+            t.pending = null;
+
+            Policy p = t.policy;
+            if (tick - t.lastSent < p.minInterval) {
+                suppressed++;
+                continue;
+            }
+            if (p.xField >= 0) {
+                double x = parseField(msg, p.xField);
+                double y = parseField(msg, p.yField);
+                boolean stale = p.refresh > 0 && tick - t.lastSent >= p.refresh;
+                if (!stale && !Double.isNaN(t.lastX) && Math.hypot(x - t.lastX, y - t.lastY) < p.minChange) {
+                    suppressed++;
+                    continue;
+                }
+                t.lastX = x;
+                t.lastY = y;
+            }
+            t.lastSent = tick;
+            out.accept(msg);
+            sent++;
+        }
+        pendingTopics.clear();
+    }
+
+    public int offered() { return offered; }
+    public int sent() { return sent; }
+    public int coalesced() { return coalesced; }
+    public int suppressed() { return suppressed; }
+
+    public String report() {
+        return "broadcast offered=" + offered + " sent=" + sent
+                + " coalesced=" + coalesced + " suppressed=" + suppressed;
+    }
+
+    // =========================
+    // FIELD PARSING (no split/regex)
+    // =========================
+    private int fieldEnd(String msg, int field) {
+        int start = fieldStart(msg, field);
+        if (start < 0) return -1;
+        int end = msg.indexOf(separator, start);
+        return end < 0 ? -1 : end;  // the topic must be followed by a payload
+    }
+
+    private int fieldStart(String msg, int field) {
+        int pos = 0;
+        for (int i = 0; i < field; i++) {
+            pos = msg.indexOf(separator, pos);
+            if (pos < 0) return -1;
+            pos++;
+        }
+        return pos;
+    }
+
+    private double parseField(String msg, int field) {
+        int start = fieldStart(msg, field);
+        if (start < 0) return Double.NaN;
+        int end = msg.indexOf(separator, start);
+        if (end < 0) end = msg.length();
+        try {
+            return Double.parseDouble(msg.substring(start, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
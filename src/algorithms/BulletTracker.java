@@ -0,0 +1,240 @@
+package algorithms;
+
+import characteristics.IRadarResult;
+import characteristics.Parameters;
+import characteristics.RadarBuffer;
+
+import java.util.ArrayList;
+
+/**
+ * Tracks BULLET radar returns across ticks and predicts whether they will hit us.
+ *
+ * Returns are turned into absolute positions with the caller's odometry, then associated
+ * to existing tracks by nearest predicted position. A track seen twice has a velocity
+ * estimate, hence a line, and we can compute its time to closest approach (ticks) and
+ * miss distance. Storage is a fixed set of parallel arrays; update() does not allocate.
+ */
+public final class BulletTracker {
+
+    private static final double SPEED = Parameters.bulletVelocity;
+    private static final double GATE_NEW = SPEED + 8;     // first match: we don't know the heading yet
+    private static final double GATE_TRACKED = 8;          // later matches: around the predicted point
+    private static final int MAX_MISSED_TICKS = 2;
+
+    private final int capacity;
+    private final double hitRadius;
+
+    private final double[] x, y, vx, vy;
+    private final int[] lastSeen, hits;
+    private final boolean[] alive;
+    private final boolean[] matched;
+    private int tick = 0;
+
+    // per-tick threat summary (recomputed by update)
+    private int threat = -1;
+    private double threatTca = Double.POSITIVE_INFINITY;
+    private double threatMiss = Double.POSITIVE_INFINITY;
+    private double myX, myY;
+
+    /** @param hitRadius our body radius plus bullet radius, plus any safety margin */
+    public BulletTracker(int capacity, double hitRadius) {
+        this.capacity = capacity;
+        this.hitRadius = hitRadius;
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        lastSeen = new int[capacity];
+        hits = new int[capacity];
+        alive = new boolean[capacity];
+        matched = new boolean[capacity];
+    }
+
+    // =========================
+    // UPDATE
+    // =========================
+    public void update(ArrayList<IRadarResult> radar, double myX, double myY) {
+        begin(myX, myY);
+        for (int k = 0; k < radar.size(); k++) {
+            IRadarResult o = radar.get(k);
+            if (o.getObjectType() == IRadarResult.Types.BULLET) observeAt(o.getObjectDistance(), o.getObjectDirection());
+        }
+        end();
+    }
+
+    public void update(RadarBuffer radar, double myX, double myY) {
+        begin(myX, myY);
+        int bullet = IRadarResult.Types.BULLET.ordinal();
+        for (int k = 0; k < radar.size(); k++) {
+            if (radar.getObjectTypeOrdinal(k) == bullet) observeAt(radar.getObjectDistance(k), radar.getObjectDirection(k));
+        }
+        end();
+    }
+
+    private void begin(double myX, double myY) {
+        tick++;
+        this.myX = myX;
+        this.myY = myY;
+        for (int i = 0; i < capacity; i++) matched[i] = false;
+    }
+
+    private void end() {
+        for (int i = 0; i < capacity; i++) {
+            if (alive[i] && tick - lastSeen[i] > MAX_MISSED_TICKS) alive[i] = false;
+        }
+        assessThreat();
+    }
+
+    // one bullet seen at (distance, direction) from us
+    private void observeAt(double distance, double direction) {
+        observe(myX + distance * Math.cos(direction), myY + distance * Math.sin(direction));
+    }
+
+    private void observe(double bx, double by) {
+        int best = -1;
+        double bestD = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < capacity; i++) {
+            if (!alive[i] || matched[i]) continue;
+            int dt = tick - lastSeen[i];
+            double d;
+            if (hits[i] >= 2) {
+                d = Math.hypot(x[i] + vx[i] * dt - bx, y[i] + vy[i] * dt - by);
+                if (d > GATE_TRACKED) continue;
+            } else {
+                d = Math.abs(Math.hypot(x[i] - bx, y[i] - by) - SPEED * dt);
+                if (Math.hypot(x[i] - bx, y[i] - by) > GATE_NEW * dt) continue;
+            }
+            if (d < bestD) {
+                bestD = d;
+                best = i;
+            }
+        }
+
+        if (best < 0) {
+            best = freeSlot();
+            if (best < 0) return;
+            alive[best] = true;
+            hits[best] = 1;
+            vx[best] = 0;
+            vy[best] = 0;
+        } else {
+            int dt = tick - lastSeen[best];
+            double nvx = (bx - x[best]) / dt;
+            double nvy = (by - y[best]) / dt;
+            if (hits[best] >= 2) {
+                nvx = 0.5 * (vx[best] + nvx);
+                nvy = 0.5 * (vy[best] + nvy);
+            }
+            vx[best] = nvx;
+            vy[best] = nvy;
+            hits[best]++;
+        }
+        x[best] = bx;
+        y[best] = by;
+        lastSeen[best] = tick;
+        matched[best] = true;
+    }
+
+    private int freeSlot() {
+        int oldest = -1;
+        for (int i = 0; i < capacity; i++) {
+            if (!alive[i]) return i;
+            if (oldest < 0 || lastSeen[i] < lastSeen[oldest]) oldest = i;
+        }
+        return lastSeen[oldest] < tick ? oldest : -1;
+    }
+
+    private void assessThreat() {
+        threat = -1;
+        threatTca = Double.POSITIVE_INFINITY;
+        threatMiss = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < capacity; i++) {
+            if (!alive[i] || hits[i] < 2) continue;
+            double tca = timeToClosestApproach(i);
+            if (tca < 0) continue;                       // moving away (e.g. our own shots)
+            double miss = missDistance(i, tca);
+            if (miss >= hitRadius) continue;
+            if (tca < threatTca) {
+                threat = i;
+                threatTca = tca;
+                threatMiss = miss;
+            }
+        }
+    }
+
+    // =========================
+    // QUERIES
+    // =========================
+    public int count() {
+        int c = 0;
+        for (int i = 0; i < capacity; i++) if (alive[i]) c++;
+        return c;
+    }
+
+    public boolean hasThreat() {
+        return threat >= 0;
+    }
+
+    /** Ticks until the most imminent bullet on a collision course is closest to us (+inf if none). */
+    public double ticksToImpact() {
+        return threatTca;
+    }
+
+    public double threatMissDistance() {
+        return threatMiss;
+    }
+
+    /** Absolute direction from us to the most imminent threat, or to the nearest bullet; NaN if none. */
+    public double threatDirection() {
+        int i = threat;
+        if (i < 0) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < capacity; k++) {
+                if (!alive[k]) continue;
+                double d = Math.hypot(px(k) - myX, py(k) - myY);
+                if (d < best) {
+                    best = d;
+                    i = k;
+                }
+            }
+        }
+        if (i < 0) return Double.NaN;
+        return Math.atan2(py(i) - myY, px(i) - myX);
+    }
+
+    /**
+     * Dodge along our current heading for a threat arriving within horizon ticks:
+     * +1 = move(), -1 = moveBack(), 0 = no threat or dodging cannot help in time.
+     */
+    public int dodgeDirection(double heading, double horizon, double mySpeed) {
+        if (threat < 0 || threatTca > horizon) return 0;
+        int i = threat;
+        // closest-approach offset of the bullet relative to us
+        double cx = px(i) - myX + vx[i] * threatTca;
+        double cy = py(i) - myY + vy[i] * threatTca;
+        // only the part of our motion across the bullet's line widens the miss distance
+        double across = Math.abs(Math.cos(heading) * vy[i] - Math.sin(heading) * vx[i]) / Math.hypot(vx[i], vy[i]);
+        double needed = hitRadius - threatMiss;
+        if (across < 0.2 || needed / (mySpeed * across) > threatTca + 1) return 0;
+
+        double dot = cx * Math.cos(heading) + cy * Math.sin(heading);
+        return dot > 0 ? -1 : +1;   // step away from where the bullet will pass
+    }
+
+    private double timeToClosestApproach(int i) {
+        double rx = px(i) - myX, ry = py(i) - myY;
+        double v2 = vx[i] * vx[i] + vy[i] * vy[i];
+        if (v2 < 1e-9) return -1;
+        return -(rx * vx[i] + ry * vy[i]) / v2;
+    }
+
+    private double missDistance(int i, double tca) {
+        double cx = px(i) - myX + vx[i] * tca;
+        double cy = py(i) - myY + vy[i] * tca;
+        return Math.hypot(cx, cy);
+    }
+
+    // position extrapolated to the current tick (tracks may have skipped a radar frame)
+    private double px(int i) { return x[i] + vx[i] * (tick - lastSeen[i]); }
+    private double py(int i) { return y[i] + vy[i] * (tick - lastSeen[i]); }
+}
@@ -21,7 +21,7 @@ public class CampFire extends Brain {
   private static IFrontSensorResult.Types WALL=IFrontSensorResult.Types.WALL;
   private Random gen;
 
-  public CampFire() { super(); gen = new Random(); }
+  public CampFire() { super(); gen = MatchRandom.newRandom(); }
 
   public void activate() {
     latence=-1;
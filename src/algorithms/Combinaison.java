@@ -6,80 +6,38 @@
  * ******************************************************/
 package algorithms;
 
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
-import robotsimulator.Brain;
 import characteristics.Parameters;
 import characteristics.IFrontSensorResult;
+import characteristics.ISnapshottable;
 
-public class Combinaison extends Brain {
+public class Combinaison extends MacroBrain implements ISnapshottable {
   //---PARAMETERS---//
-  private static final double HEADINGPRECISION = 0.001;
-
-  //---VARIABLES---//
-  private boolean turnRightTask,fallBackCoveringFireTask;
-  private double endTaskDirection,endMoveTask,distance;
-  private static enum Action { NONE, MOVE, MOVEBACK, FIRELEFT, FIRERIGHT, FIRE };
-  private static Action[] fallBackCoveringFireScheme = { Action.FIRE, Action.MOVEBACK, Action.FIRELEFT, Action.MOVEBACK, Action.FIRERIGHT, Action.MOVEBACK };
-  //private static Action[] fallBackCoveringFireScheme = { Action.FIRE, Action.MOVEBACK};
-  private int schemeIndex;
+  private static final double FALLBACKLEG = 100; //moving back 100 takes one firing latency
+  private static final double[] FALLBACKFIRE = { 0, -0.01*Math.PI, 0.01*Math.PI }; //one shot per leg
 
   //---CONSTRUCTORS---//
-  public Combinaison() { super(); }
+  public Combinaison() { super(Parameters.teamAMainBotSpeed,Parameters.teamAMainBotStepTurnAngle); }
 
   //---ABSTRACT-METHODS-IMPLEMENTATION---//
   public void activate() {
-    turnRightTask=false;
     move();
     sendLogMessage("Moving a head. Waza!");
   }
-  public void step() {
-    if (fallBackCoveringFireTask) {
-      if (distance>endMoveTask) {
-        fallBackCoveringFireTask=false;
-      } else {
-        switch (fallBackCoveringFireScheme[schemeIndex]){
-          case MOVEBACK:
-            moveBack();
-            distance+=Parameters.teamAMainBotSpeed;
-            break;
-          case FIRE:
-            fire(getHeading());
-            break;
-          case FIRELEFT:
-            fire(getHeading()-0.01*Math.PI);
-            break;
-          case FIRERIGHT:
-            fire(getHeading()+0.01*Math.PI);
-            break;
-        }
-        schemeIndex=(schemeIndex+1)%fallBackCoveringFireScheme.length;
-      }
-      return;
-    }
-    if (turnRightTask) {
-      if (isHeading(endTaskDirection)) {
-	turnRightTask=false;
-      } else {
-	stepTurn(Parameters.Direction.RIGHT);
-      }
-      return;
-    }
+  protected void decide() {
     if (detectFront().getObjectType()==IFrontSensorResult.Types.WALL) {
-      fallBackCoveringFireTask=false;
-      turnRightTask=true;
-      endTaskDirection=getHeading()+Parameters.RIGHTTURNFULLANGLE;
-      stepTurn(Parameters.Direction.RIGHT);
+      turnTo(getHeading()+Parameters.RIGHTTURNFULLANGLE);
       sendLogMessage("Iceberg at 12 o'clock. Heading to my three!");
       return;
     }
     if (detectFront().getObjectType()==IFrontSensorResult.Types.OpponentMainBot) {
-      turnRightTask=false;
-      fallBackCoveringFireTask=true;
-      endMoveTask=300;
-      moveBack();
-      distance=Parameters.teamAMainBotSpeed;
-      schemeIndex=0;
+      for (double offset : FALLBACKFIRE) {
+        fireBurst(offset);
+        moveDistance(-FALLBACKLEG);
+      }
       sendLogMessage("Enemy at 12 o'clock. Fall back covering fire for 30cm!");
       return;
     }
@@ -87,7 +45,10 @@ public class Combinaison extends Brain {
     sendLogMessage("Moving a head. Waza!");
     return;
   }
-  private boolean isHeading(double dir){
-    return Math.abs(Math.sin(getHeading()-dir))<HEADINGPRECISION;
+  public void saveState(DataOutput out) throws IOException {
+    saveMacros(out);
+  }
+  public void restoreState(DataInput in) throws IOException {
+    restoreMacros(in);
   }
 }
@@ -0,0 +1,121 @@
+package algorithms;
+
+/**
+ * Flank slots around a target, one per main, and which main takes which.
+ *
+ * The slots sit on an arc of the given radius around the target, on the team's side of it,
+ * spacing radians apart: the axis runs from the centroid of the team to the target, so the
+ * slots depend on the inputs only, not on who solves. Bot i goes to slot assignment(i), the
+ * assignment minimising the total distance to travel (Hungarian method, O(N^3) on the N x N
+ * distance matrix). Buffers are allocated once for at most maxBots; solve() does not allocate.
+ */
+public final class FormationSolver {
+
+    private final int maxBots;
+    private final double radius, spacing;
+    private final double[] slotX, slotY;
+    private final int[] assignment;
+    private int size = 0;
+
+    // Hungarian workspace, 1-based as in the textbook formulation
+    private final double[] cost;
+    private final double[] u, v, minv;
+    private final int[] p, way;
+    private final boolean[] used;
+
+    public FormationSolver(int maxBots, double radius, double spacing) {
+        if (maxBots <= 0 || radius <= 0) throw new IllegalArgumentException("Bad formation " + maxBots + "/" + radius);
+        this.maxBots = maxBots;
+        this.radius = radius;
+        this.spacing = spacing;
+        slotX = new double[maxBots];
+        slotY = new double[maxBots];
+        assignment = new int[maxBots];
+        cost = new double[maxBots * maxBots];
+        u = new double[maxBots + 1];
+        v = new double[maxBots + 1];
+        minv = new double[maxBots + 1];
+        p = new int[maxBots + 1];
+        way = new int[maxBots + 1];
+        used = new boolean[maxBots + 1];
+    }
+
+    /** Slots around (tx,ty) for the n bots at (xs[i],ys[i]), and who takes which. */
+    public void solve(double tx, double ty, double[] xs, double[] ys, int n) {
+        if (n <= 0 || n > maxBots) throw new IllegalArgumentException("Formation of " + n + " bots, max " + maxBots);
+        size = n;
+
+        double cx = 0, cy = 0;
+        for (int i = 0; i < n; i++) {
+            cx += xs[i];
+            cy += ys[i];
+        }
+        double facing = Math.atan2(cy / n - ty, cx / n - tx);   // from the target toward the team
+        for (int k = 0; k < n; k++) {
+            double a = facing + (k - (n - 1) / 2.0) * spacing;
+            slotX[k] = tx + radius * Math.cos(a);
+            slotY[k] = ty + radius * Math.sin(a);
+        }
+
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < n; k++) cost[i * n + k] = Math.hypot(slotX[k] - xs[i], slotY[k] - ys[i]);
+        }
+        assign(n);
+    }
+
+    public int getSize() { return size; }
+    public int assignment(int bot) { return assignment[bot]; }
+    public double slotX(int bot) { return slotX[assignment[bot]]; }
+    public double slotY(int bot) { return slotY[assignment[bot]]; }
+
+    // =========================
+    // HUNGARIAN METHOD
+    // =========================
+    private void assign(int n) {
+        for (int j = 0; j <= n; j++) {
+            u[j] = 0;
+            v[j] = 0;
+            p[j] = 0;
+        }
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            for (int j = 0; j <= n; j++) {
+                minv[j] = Double.POSITIVE_INFINITY;
+                used[j] = false;
+            }
+            do {
+                used[j0] = true;
+                int i0 = p[j0], j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+                for (int j = 1; j <= n; j++) {
+                    if (used[j]) continue;
+                    double cur = cost[(i0 - 1) * n + j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        for (int j = 1; j <= n; j++) assignment[p[j] - 1] = j - 1;
+    }
+}
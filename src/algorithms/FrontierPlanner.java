@@ -0,0 +1,181 @@
+package algorithms;
+
+/**
+ * Frontier-based exploration over a coarse grid of the arena.
+ *
+ * A cell is visited once its centre has been within radar range of a scout; a frontier is
+ * an unvisited cell next to a visited one (4-neighbourhood). Both sets are bitsets, and the
+ * frontier is kept up to date as cells get visited, so observe() costs nothing while the
+ * scout stays in its cell and O(radar disc) when it enters a new one. Cells found outside
+ * the arena (clip(), once borders are known) are never frontiers.
+ *
+ * bestFrontier() weighs distance against the turn needed to face the cell, since a scout
+ * turning on the spot explores nothing, and skips the frontier cells around the teammate's
+ * own target, so two scouts sharing their targets (a blackboard claim, say) spread out
+ * instead of covering the same ground; the teammate's previous target is worth marking as
+ * visited with markDisc().
+ */
+public final class FrontierPlanner {
+
+    // ===== ASSUMED ARENA (until clip) =====
+    public static final double ARENA_WIDTH = 3000;
+    public static final double ARENA_HEIGHT = 2000;
+
+    private final double cellSize;
+    private final int cols, rows;
+    private final long[] visited, frontier, outside;
+    private int frontierCount = 0;
+    private int visitedCount = 0;
+    private int lastCell = -1;
+
+    public FrontierPlanner(double cellSize) {
+        this(ARENA_WIDTH, ARENA_HEIGHT, cellSize);
+    }
+
+    public FrontierPlanner(double width, double height, double cellSize) {
+        if (cellSize <= 0 || width < cellSize || height < cellSize) {
+            throw new IllegalArgumentException("Bad exploration grid " + width + "x" + height + "/" + cellSize);
+        }
+        this.cellSize = cellSize;
+        cols = (int) Math.ceil(width / cellSize);
+        rows = (int) Math.ceil(height / cellSize);
+        int words = (cols * rows + 63) >>> 6;
+        visited = new long[words];
+        frontier = new long[words];
+        outside = new long[words];
+    }
+
+    // =========================
+    // OBSERVATION
+    // =========================
+    /** Scout at (x,y) sensing radius around it; only does work when it entered another cell. */
+    public void observe(double x, double y, double radius) {
+        int c = cellAt(x, y);
+        if (c == lastCell) return;
+        lastCell = c;
+        markDisc(x, y, radius);
+    }
+
+    /** Marks every cell whose centre is within radius of (x,y), e.g. where a teammate went. */
+    public void markDisc(double x, double y, double radius) {
+        int c0 = clampCol((int) Math.floor((x - radius) / cellSize));
+        int c1 = clampCol((int) Math.floor((x + radius) / cellSize));
+        int r0 = clampRow((int) Math.floor((y - radius) / cellSize));
+        int r1 = clampRow((int) Math.floor((y + radius) / cellSize));
+        double r2 = radius * radius;
+        for (int r = r0; r <= r1; r++) {
+            double dy = centre(r) - y;
+            for (int c = c0; c <= c1; c++) {
+                double dx = centre(c) - x;
+                if (dx * dx + dy * dy <= r2) visit(r * cols + c);
+            }
+        }
+    }
+
+    /** Cells whose centre lies beyond a known border are outside the arena; negative = unknown. */
+    public void clip(double west, double north, double east, double south) {
+        for (int r = 0; r < rows; r++) {
+            double cy = centre(r);
+            for (int c = 0; c < cols; c++) {
+                double cx = centre(c);
+                boolean out = (west >= 0 && cx < west) || (east >= 0 && cx > east)
+                        || (north >= 0 && cy < north) || (south >= 0 && cy > south);
+                if (!out) continue;
+                int i = r * cols + c;
+                set(outside, i);
+                if (get(frontier, i)) {
+                    clear(frontier, i);
+                    frontierCount--;
+                }
+            }
+        }
+    }
+
+    /** Gives up on a cell (unreachable target): it counts as visited from now on. */
+    public void abandon(int cell) {
+        if (cell >= 0) visit(cell);
+    }
+
+    private void visit(int i) {
+        if (get(visited, i)) return;
+        set(visited, i);
+        visitedCount++;
+        if (get(frontier, i)) {
+            clear(frontier, i);
+            frontierCount--;
+        }
+        int r = i / cols, c = i % cols;
+        if (r > 0) grow(i - cols);
+        if (r < rows - 1) grow(i + cols);
+        if (c > 0) grow(i - 1);
+        if (c < cols - 1) grow(i + 1);
+    }
+
+    private void grow(int i) {
+        if (get(visited, i) || get(outside, i) || get(frontier, i)) return;
+        set(frontier, i);
+        frontierCount++;
+    }
+
+    // =========================
+    // QUERIES
+    // =========================
+    /**
+     * Cheapest frontier cell for a scout at (x,y) facing heading, the cost being the distance
+     * plus turnCost per radian to turn (speed / stepTurnAngle makes both ticks). Cells within
+     * exclusion of (otherX,otherY) are left out unless nothing else is left; pass a negative
+     * exclusion when there is no teammate target. -1 once the arena is explored.
+     */
+    public int bestFrontier(double x, double y, double heading, double turnCost,
+                            double otherX, double otherY, double exclusion) {
+        int best = -1, fallback = -1;
+        double bestD = Double.POSITIVE_INFINITY, fallbackD = Double.POSITIVE_INFINITY;
+        double ex2 = exclusion * exclusion;
+        for (int w = 0; w < frontier.length; w++) {
+            long bits = frontier[w];
+            while (bits != 0L) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                double dx = cellX(i) - x, dy = cellY(i) - y;
+                double d = Math.sqrt(dx * dx + dy * dy)
+                        + turnCost * Math.abs(Math.IEEEremainder(Math.atan2(dy, dx) - heading, 2 * Math.PI));
+                if (exclusion >= 0 && dist2(cellX(i), cellY(i), otherX, otherY) < ex2) {
+                    if (d < fallbackD) { fallbackD = d; fallback = i; }
+                } else if (d < bestD) {
+                    bestD = d;
+                    best = i;
+                }
+            }
+        }
+        return best >= 0 ? best : fallback;
+    }
+
+    public boolean isFrontier(int cell) {
+        return cell >= 0 && get(frontier, cell);
+    }
+
+    public double cellX(int cell) { return centre(cell % cols); }
+    public double cellY(int cell) { return centre(cell / cols); }
+    public int getFrontierCount() { return frontierCount; }
+    public int getVisitedCount() { return visitedCount; }
+
+    // =========================
+    // GRID
+    // =========================
+    private int cellAt(double x, double y) {
+        return clampRow((int) Math.floor(y / cellSize)) * cols + clampCol((int) Math.floor(x / cellSize));
+    }
+
+    private double centre(int index) { return (index + 0.5) * cellSize; }
+    private int clampCol(int c) { return Math.max(0, Math.min(cols - 1, c)); }
+    private int clampRow(int r) { return Math.max(0, Math.min(rows - 1, r)); }
+
+    private static double dist2(double ax, double ay, double bx, double by) {
+        double dx = ax - bx, dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    private static boolean get(long[] bits, int i) { return (bits[i >>> 6] & (1L << i)) != 0L; }
+    private static void set(long[] bits, int i) { bits[i >>> 6] |= 1L << i; }
+    private static void clear(long[] bits, int i) { bits[i >>> 6] &= ~(1L << i); }
+}
@@ -0,0 +1,92 @@
+package algorithms;
+
+/**
+ * A scout's frontier exploration: the FrontierPlanner grid plus the target it is heading for.
+ *
+ * update() keeps a target (re-picked once it is explored, or abandoned when the time budget
+ * for reaching it runs out), bearing() says when to turn toward it, and detour() lets an
+ * avoidance turn play out before the next re-aim. The teammate's target area is left to it
+ * while another cell is open, and its previous target counts as explored once it moves on.
+ * The brain owns the messaging: announcing its target is up to it after update() picked.
+ */
+public final class FrontierScout {
+
+    public static final double CELL = 100;
+    private static final double HEADING_TOLERANCE = 0.3;   // the target is a CELL wide cell, often ahead
+    private static final int DETOUR_TICKS = 30;            // follow an avoidance turn before re-aiming
+
+    private final double speed, turnCost, range;
+    private final FrontierPlanner planner = new FrontierPlanner(CELL);
+    private int target = -1;
+    private int budget = 0;                                 // ticks left to get there before giving up
+    private int detourTicks = 0;
+    private double teammateX = -1, teammateY = -1;
+    private double clipWest = -1, clipNorth = -1, clipEast = -1, clipSouth = -1;
+
+    /** Scout moving speed per tick, turning stepTurnAngle per tick, sensing range around it. */
+    public FrontierScout(double speed, double stepTurnAngle, double range) {
+        if (speed <= 0 || stepTurnAngle <= 0 || range <= 0) throw new IllegalArgumentException("Bad scout " + speed + "/" + stepTurnAngle + "/" + range);
+        this.speed = speed;
+        this.turnCost = speed / stepTurnAngle;
+        this.range = range;
+    }
+
+    // =========================
+    // KNOWLEDGE
+    // =========================
+    public void observe(double x, double y) {
+        planner.observe(x, y, range);
+    }
+
+    /** Borders known so far (negative = unknown); only re-clips when one changed. */
+    public void clip(double west, double north, double east, double south) {
+        if (west == clipWest && north == clipNorth && east == clipEast && south == clipSouth) return;
+        clipWest = west;
+        clipNorth = north;
+        clipEast = east;
+        clipSouth = south;
+        planner.clip(west, north, east, south);
+    }
+
+    /** The teammate's current target, negative if unknown; its previous one counts as explored. */
+    public void teammateTarget(double tx, double ty) {
+        if (tx == teammateX && ty == teammateY) return;
+        if (teammateX >= 0) planner.markDisc(teammateX, teammateY, range);
+        teammateX = tx;
+        teammateY = ty;
+    }
+
+    // =========================
+    // STEERING
+    // =========================
+    /** Keeps a target for a scout at (x,y) facing heading; true when a new one was picked (or none is left). */
+    public boolean update(double x, double y, double heading) {
+        if (detourTicks > 0) detourTicks--;
+        if (planner.isFrontier(target) && --budget <= 0) {
+            planner.abandon(target); // unreachable from here: try another one
+        }
+        if (planner.isFrontier(target)) return false;
+
+        target = planner.bestFrontier(x, y, heading, turnCost, teammateX, teammateY, teammateX >= 0 ? 2 * range : -1);
+        if (target >= 0) budget = 2 * (int) (Math.hypot(targetX() - x, targetY() - y) / speed) + 200;
+        return true;
+    }
+
+    /** Heading to turn to for the target, or NaN to keep going (no target, detouring, or roughly facing it). */
+    public double bearing(double x, double y, double heading) {
+        if (target < 0 || detourTicks > 0) return Double.NaN;
+        double bearing = Math.atan2(targetY() - y, targetX() - x);
+        return Math.abs(Math.IEEEremainder(bearing - heading, 2 * Math.PI)) > HEADING_TOLERANCE ? bearing : Double.NaN;
+    }
+
+    /** The scout had to turn away from an obstacle at (x,y). */
+    public void detour(double x, double y) {
+        detourTicks = DETOUR_TICKS;
+        // blocked right before seeing it (a cell along a wall, mostly): not worth the detour
+        if (target >= 0 && Math.hypot(targetX() - x, targetY() - y) < range + CELL) planner.abandon(target);
+    }
+
+    public boolean hasTarget() { return target >= 0; }
+    public double targetX() { return planner.cellX(target); }
+    public double targetY() { return planner.cellY(target); }
+}
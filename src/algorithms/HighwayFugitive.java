@@ -33,17 +33,17 @@ public class HighwayFugitive extends Brain {
     firstMove=true;
     highway=false;
     back=false;
-    endTaskDirection=(Math.random()-0.5)*0.5*Math.PI;
+    endTaskDirection=(MatchRandom.nextDouble()-0.5)*0.5*Math.PI;
     turnRight=(endTaskDirection>0);
     endTaskDirection+=getHeading();
-    lastShot=Math.random()*Math.PI*2;
+    lastShot=MatchRandom.nextDouble()*Math.PI*2;
     if (turnRight) stepTurn(Parameters.Direction.RIGHT);
     else stepTurn(Parameters.Direction.LEFT);
     sendLogMessage("Turning point. Waza!");
   }
   public void step() {
-    if (Math.random()<0.01) {
-      fire(Math.random()*Math.PI*2);
+    if (MatchRandom.nextDouble()<0.01) {
+      fire(MatchRandom.nextDouble()*Math.PI*2);
       return;
     }
     ArrayList<IRadarResult> radarResults = detectRadar();
@@ -52,7 +52,7 @@ public class HighwayFugitive extends Brain {
         turnTask=true;
         moveTask=false;
         highway=false;
-        endTaskDirection=(Math.random()-0.5)*2*Math.PI;
+        endTaskDirection=(MatchRandom.nextDouble()-0.5)*2*Math.PI;
         turnRight=(endTaskDirection>0);
         endTaskDirection+=getHeading();
         if (turnRight) stepTurn(Parameters.Direction.RIGHT);
@@ -60,7 +60,7 @@ public class HighwayFugitive extends Brain {
         sendLogMessage("Turning point. Waza!");
       } else {
         endTaskCounter--;
-        if (Math.random()<0.1) {
+        if (MatchRandom.nextDouble()<0.1) {
           for (IRadarResult r : radarResults) {
             if (r.getObjectType()==IRadarResult.Types.OpponentMainBot) {
               fire(r.getObjectDirection());
@@ -130,7 +130,7 @@ public class HighwayFugitive extends Brain {
       if (endTaskCounter<0) {
         turnTask=true;
         moveTask=false;
-        endTaskDirection=(Math.random()-0.5)*2*Math.PI;
+        endTaskDirection=(MatchRandom.nextDouble()-0.5)*2*Math.PI;
         turnRight=(endTaskDirection>0);
         endTaskDirection+=getHeading();
         if (turnRight) stepTurn(Parameters.Direction.RIGHT);
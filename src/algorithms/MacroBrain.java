@@ -0,0 +1,301 @@
+package algorithms;
+
+import characteristics.IFrontSensorResult;
+import characteristics.IRadarResult;
+import characteristics.Parameters;
+import characteristics.RadarBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Brain that runs queued macro-actions: turnTo, moveDistance, followPath and fireBurst.
+ *
+ * A macro is expanded into the primitive commands the engine performs, one per tick, with the
+ * bot's speed and stepTurnAngle from Parameters: a turn is a known number of stepTurns, a
+ * distance a known number of moves, a burst one shot each time the firing latency allows.
+ * While macros are queued step() issues the next primitive and returns. decide(), the brain's
+ * own logic, runs once the queue is empty or a registered interrupt fired (which drops the
+ * queue); macros it queues start on that very tick.
+ * followPath dead-reckons from the moves it issued, so a move the engine refused (a collision)
+ * still counts: register BLOCKED when that matters. A new path cannot be queued while waypoints
+ * of the previous one are pending, since they would be reckoned from the new origin.
+ * The reload mirror restarts after any fire() call, including one the engine ignored because
+ * it was still reloading; it is only accurate when every shot goes through fireBurst, which
+ * never fires before the mirror says it may.
+ * The queue is a fixed ring of parallel arrays; queueing and running macros does not allocate.
+ */
+public abstract class MacroBrain extends ThrottledBrain {
+
+    // ===== INTERRUPTS =====
+    public static final int ENEMY_SEEN = 1;   // an opponent came into range
+    public static final int DAMAGED = 2;      // health went down
+    public static final int BLOCKED = 4;      // front sensor not clear before a forward move
+
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final int TURN_TO = 0, TURN = 1, MOVE = 2, WAYPOINT = 3, FIRE = 4;
+    private static final int OPPONENTS = RadarBuffer.mask(IRadarResult.Types.OpponentMainBot,
+            IRadarResult.Types.OpponentSecondaryBot);
+
+    private final double speed, stepTurnAngle;
+
+    // queued segments, head first: kind, remaining ticks (-1 until expanded), two parameters
+    private final int[] kind, count;
+    private final double[] a, b;
+    private int head = 0, size = 0;
+
+    private int interrupts = 0;
+    private double enemyRange = Double.POSITIVE_INFINITY;
+    private int fired = 0;
+    private int enemiesInRange = 0;
+    private double lastHealth = -1;
+    private final RadarBuffer enemies = new RadarBuffer();
+
+    private int reload = 0;             // mirrors the engine's firing counter, if only bursts fire
+    private boolean fireIssued = false;
+    private boolean issued = false;
+    private double posX, posY;          // dead reckoning along followPath
+
+    protected MacroBrain(double speed, double stepTurnAngle) {
+        this(speed, stepTurnAngle, DEFAULT_CAPACITY);
+    }
+
+    protected MacroBrain(double speed, double stepTurnAngle, int capacity) {
+        super();
+        if (speed <= 0 || stepTurnAngle <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("MacroBrain needs a positive speed, turn angle and capacity");
+        }
+        this.speed = speed;
+        this.stepTurnAngle = stepTurnAngle;
+        kind = new int[capacity];
+        count = new int[capacity];
+        a = new double[capacity];
+        b = new double[capacity];
+    }
+
+    /** The brain's own logic: runs when no macro is queued, or right after an interrupt. */
+    protected abstract void decide();
+
+    @Override
+    public final void step() {
+        // last tick's fire() restarts the latency, whether or not the engine actually fired
+        if (fireIssued && reload == 0) reload = Parameters.bulletFiringLatency + 1;
+        reload = Math.max(reload - 1, 0);
+        fireIssued = false;
+        issued = false;
+
+        fired = checkInterrupts();
+        if (fired != 0) cancelMacros();
+        if (runMacro()) return;
+        decide();
+        if (!issued) runMacro();
+    }
+
+    // =========================
+    // MACROS
+    // =========================
+    /** Turn to an absolute heading, the short way round, when this macro is reached. */
+    protected void turnTo(double heading) {
+        push(TURN_TO, -1, heading, 0);
+    }
+
+    /** Move forward (negative: backward) by distance, rounded up to whole moves. */
+    protected void moveDistance(double distance) {
+        push(MOVE, (int) Math.ceil(Math.abs(distance) / speed - 1e-9), Math.signum(distance), 0);
+    }
+
+    /** Turn to and go to each (x,y) of xy in turn, starting from (fromX,fromY). */
+    protected void followPath(double fromX, double fromY, double... xy) {
+        if (xy.length % 2 != 0) throw new IllegalArgumentException("Waypoints come as x,y pairs");
+        if (size + xy.length / 2 >= kind.length) throw new IllegalStateException("Macro queue full"); // +1: a leg's turn
+        for (int n = 0; n < size; n++) {
+            if (kind[(head + n) % kind.length] == WAYPOINT) throw new IllegalStateException("Previous path still pending");
+        }
+        posX = fromX;
+        posY = fromY;
+        for (int i = 0; i < xy.length; i += 2) push(WAYPOINT, -1, xy[i], xy[i + 1]);
+    }
+
+    /** One shot per offset (radians from the heading at the time), as fast as reloading allows. */
+    protected void fireBurst(double... offsets) {
+        if (size + offsets.length > kind.length) throw new IllegalStateException("Macro queue full");
+        for (double offset : offsets) push(FIRE, -1, offset, 0);
+    }
+
+    protected boolean hasMacros() { return size > 0; }
+
+    protected void cancelMacros() { size = 0; }
+
+    /** Interrupts that cut the queue on this tick, 0 if none. */
+    protected int getInterrupt() { return fired; }
+
+    /** Interrupts (ENEMY_SEEN | DAMAGED | BLOCKED) that hand control back to decide(). */
+    protected void setInterrupts(int mask) {
+        setInterrupts(mask, Double.POSITIVE_INFINITY);
+    }
+
+    protected void setInterrupts(int mask, double enemyRange) {
+        this.interrupts = mask;
+        this.enemyRange = enemyRange;
+    }
+
+    protected double getPathX() { return posX; }
+    protected double getPathY() { return posY; }
+
+    // =========================
+    // EXECUTION
+    // =========================
+    /** Issues this tick's primitive of the head macro; false once the queue is empty. */
+    private boolean runMacro() {
+        while (size > 0) {
+            int i = head;
+            switch (kind[i]) {
+                case TURN_TO: {
+                    double diff = Math.IEEEremainder(a[i] - getHeading(), 2 * Math.PI);
+                    kind[i] = TURN;
+                    count[i] = (int) Math.round(Math.abs(diff) / stepTurnAngle);
+                    a[i] = diff > 0 ? 1 : -1;
+                    continue;
+                }
+                case TURN:
+                    if (count[i] == 0) break;
+                    count[i]--;
+                    stepTurn(a[i] > 0 ? Parameters.Direction.RIGHT : Parameters.Direction.LEFT);
+                    return true;
+                case MOVE:
+                    if (count[i] == 0) break;
+                    count[i]--;
+                    posX += a[i] * speed * Math.cos(getHeading());
+                    posY += a[i] * speed * Math.sin(getHeading());
+                    if (a[i] > 0) move(); else moveBack();
+                    return true;
+                case WAYPOINT: {
+                    double dx = a[i] - posX, dy = b[i] - posY;
+                    kind[i] = MOVE;
+                    count[i] = (int) Math.round(Math.hypot(dx, dy) / speed);
+                    a[i] = 1;
+                    if (count[i] > 0) pushFront(TURN_TO, -1, Math.atan2(dy, dx), 0);
+                    continue;
+                }
+                case FIRE:
+                    if (reload > 0) return true; // reloading: hold still, the shot comes next
+                    fire(getHeading() + a[i]);
+                    pop();
+                    return true;
+            }
+            pop();
+        }
+        return false;
+    }
+
+    private int checkInterrupts() {
+        int f = 0;
+        double h = getHealth();
+        if ((interrupts & DAMAGED) != 0 && lastHealth >= 0 && h < lastHealth) f |= DAMAGED;
+        lastHealth = h;
+        if ((interrupts & ENEMY_SEEN) != 0) {
+            int n = detectRadarInto(enemies, OPPONENTS, enemyRange);
+            if (n > enemiesInRange) f |= ENEMY_SEEN;
+            enemiesInRange = n;
+        }
+        if ((interrupts & BLOCKED) != 0 && size > 0 && kind[head] == MOVE && a[head] > 0 && count[head] > 0
+                && detectFront().getObjectType() != IFrontSensorResult.Types.NOTHING) {
+            f |= BLOCKED;
+        }
+        return size > 0 ? f : 0;
+    }
+
+    private void push(int k, int c, double pa, double pb) {
+        if (size == kind.length) throw new IllegalStateException("Macro queue full");
+        int i = (head + size) % kind.length;
+        kind[i] = k;
+        count[i] = c;
+        a[i] = pa;
+        b[i] = pb;
+        size++;
+    }
+
+    private void pushFront(int k, int c, double pa, double pb) {
+        if (size == kind.length) throw new IllegalStateException("Macro queue full");
+        head = (head + kind.length - 1) % kind.length;
+        kind[head] = k;
+        count[head] = c;
+        a[head] = pa;
+        b[head] = pb;
+        size++;
+    }
+
+    private void pop() {
+        head = (head + 1) % kind.length;
+        size--;
+    }
+
+    // =========================
+    // PRIMITIVES (track what this tick issued)
+    // =========================
+    @Override
+    public void move() {
+        issued = true;
+        fireIssued = false;
+        super.move();
+    }
+
+    @Override
+    public void moveBack() {
+        issued = true;
+        fireIssued = false;
+        super.moveBack();
+    }
+
+    @Override
+    public void stepTurn(Parameters.Direction dir) {
+        issued = true;
+        fireIssued = false;
+        super.stepTurn(dir);
+    }
+
+    @Override
+    public void fire(double direction) {
+        issued = true;
+        fireIssued = true;
+        super.fire(direction);
+    }
+
+    // =========================
+    // SNAPSHOT (for ISnapshottable subclasses)
+    // =========================
+    protected void saveMacros(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int n = 0; n < size; n++) {
+            int i = (head + n) % kind.length;
+            out.writeInt(kind[i]);
+            out.writeInt(count[i]);
+            out.writeDouble(a[i]);
+            out.writeDouble(b[i]);
+        }
+        out.writeInt(interrupts);
+        out.writeDouble(enemyRange);
+        out.writeInt(enemiesInRange);
+        out.writeDouble(lastHealth);
+        out.writeInt(reload);
+        out.writeBoolean(fireIssued);
+        out.writeDouble(posX);
+        out.writeDouble(posY);
+    }
+
+    protected void restoreMacros(DataInput in) throws IOException {
+        head = 0;
+        size = 0;
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) push(in.readInt(), in.readInt(), in.readDouble(), in.readDouble());
+        interrupts = in.readInt();
+        enemyRange = in.readDouble();
+        enemiesInRange = in.readInt();
+        lastHealth = in.readDouble();
+        reload = in.readInt();
+        fireIssued = in.readBoolean();
+        posX = in.readDouble();
+        posY = in.readDouble();
+    }
+}
@@ -0,0 +1,43 @@
+package algorithms;
+
+import java.util.Random;
+
+/**
+ * Single source of randomness for the brains, in place of Math.random() and new Random().
+ *
+ * Unseeded it behaves like Math.random(). Once seed() has been called (supportGUI.Lockstep
+ * does it before the engine instantiates the brains), every draw depends only on the seed
+ * and on the order of the calls, which is fixed when the bots step in a fixed order.
+ */
+public class MatchRandom {
+  //---VARIABLES---//
+  private static Random shared = new Random();
+  private static long seed;
+  private static int derived;
+  private static boolean seeded = false;
+
+  //---CONSTRUCTORS---//
+  private MatchRandom(){}
+
+  //---SEEDING---//
+  public static synchronized void seed(long s) {
+    seed=s;
+    derived=0;
+    seeded=true;
+    shared=new Random(s);
+  }
+  public static synchronized void unseed() {
+    seeded=false;
+    shared=new Random();
+  }
+  public static boolean isSeeded() { return seeded; }
+
+  //---DRAWS---//
+  public static synchronized double nextDouble() { return shared.nextDouble(); }
+  /** Private generator for one brain; derived from the seed in creation order when seeded. */
+  public static synchronized Random newRandom() {
+    if (!seeded) return new Random();
+    derived++;
+    return new Random(seed*0x9E3779B97F4A7C15L+derived);
+  }
+}
@@ -44,7 +44,7 @@ public class Mule extends Brain {
       return;
     }
     if (!(detectFront().getObjectType()==IFrontSensorResult.Types.WALL || detectFront().getObjectType()==IFrontSensorResult.Types.Wreck)) {
-      if (Math.random()<0.98) move(); //And what to do when blind blocked?
+      if (MatchRandom.nextDouble()<0.98) move(); //And what to do when blind blocked?
       else fire(getHeading());
       sendLogMessage("Moving a head. Waza!");
     } else {
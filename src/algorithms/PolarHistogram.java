@@ -0,0 +1,144 @@
+package algorithms;
+
+import characteristics.Parameters;
+import characteristics.RadarBuffer;
+
+/**
+ * Polar obstacle histogram (vector field histogram, binary form) around one bot.
+ *
+ * The full turn is cut into sectors; a sector is blocked when moving along it would run into
+ * something within range. A radar object blocks the arc it covers, widened by our clearance
+ * (own radius plus margin); a wall at a known coordinate blocks every direction whose ray
+ * reaches it within range. Filled from the tick's radar snapshot and the learned bounds,
+ * nearestFree() then answers in one pass which heading to turn to, where probing turned a
+ * little, looked again, and turned again. freeHeading() does both for a main bot deciding a
+ * turn: fill from its obstacle scan and wall field, then pick.
+ * Storage is one boolean per sector; clear() and the add methods do not allocate.
+ */
+public final class PolarHistogram {
+
+    private static final int BOT_SECTORS = 72;                 // 5° each
+    private static final double BOT_MARGIN = 10;
+    private static final double FRONT_WALL_CONE = Math.PI / 4; // front sensor saw a wall on our ray
+
+    private final int sectors;
+    private final double width;
+    private final double clearance;
+    private final double wallRange;
+    private final boolean[] blocked;
+
+    /**
+     * @param clearance our body radius plus the margin to keep from obstacles
+     * @param wallRange how far freeHeading() looks for walls
+     */
+    public PolarHistogram(int sectors, double clearance, double wallRange) {
+        if (sectors < 4) throw new IllegalArgumentException("Too few sectors: " + sectors);
+        this.sectors = sectors;
+        this.width = 2 * Math.PI / sectors;
+        this.clearance = clearance;
+        this.wallRange = wallRange;
+        this.blocked = new boolean[sectors];
+    }
+
+    /** A main bot's histogram: 5° sectors, walls seen as far as its front sensor reaches. */
+    public static PolarHistogram forBot(double radius, double frontRange) {
+        return new PolarHistogram(BOT_SECTORS, radius + BOT_MARGIN, frontRange);
+    }
+
+    public void clear() {
+        for (int s = 0; s < sectors; s++) blocked[s] = false;
+    }
+
+    // =========================
+    // FILLING
+    // =========================
+    /** Radar objects of typeMask closer than range block the directions they cover. */
+    public void addRadar(RadarBuffer radar, int typeMask, double range) {
+        for (int i = 0; i < radar.size(); i++) {
+            if (!RadarBuffer.matches(typeMask, radar.getObjectTypeOrdinal(i))) continue;
+            double d = radar.getObjectDistance(i);
+            if (d >= range) continue;
+            double reach = radar.getObjectRadius(i) + clearance;
+            blockArc(radar.getObjectDirection(i), d <= reach ? Math.PI / 2 : Math.asin(reach / d));
+        }
+    }
+
+    /** Walls at these coordinates (negative: unknown) seen from (x,y), within range. */
+    public void addWalls(double x, double y, double west, double north, double east, double south, double range) {
+        if (west >= 0) addWall(x - west, Parameters.WEST, range);
+        if (north >= 0) addWall(y - north, Parameters.NORTH, range);
+        if (east >= 0) addWall(east - x, Parameters.EAST, range);
+        if (south >= 0) addWall(south - y, Parameters.SOUTH, range);
+    }
+
+    private void addWall(double distance, double normal, double range) {
+        double d = distance - clearance;
+        if (d >= range) return;
+        blockArc(normal, d <= 0 ? Math.PI / 2 : Math.acos(d / range));
+    }
+
+    /** Blocks every sector overlapping direction +/- halfWidth. */
+    public void blockArc(double direction, double halfWidth) {
+        if (halfWidth >= Math.PI) {
+            for (int s = 0; s < sectors; s++) blocked[s] = true;
+            return;
+        }
+        int from = sector(direction - halfWidth);
+        int to = sector(direction + halfWidth);
+        for (int s = from; ; s = (s + 1) % sectors) {
+            blocked[s] = true;
+            if (s == to) break;
+        }
+    }
+
+    // =========================
+    // QUERIES
+    // =========================
+    public boolean isFree(double direction) {
+        return !blocked[sector(direction)];
+    }
+
+    /**
+     * desired itself when free, else the centre of the nearest free sector, looking on side
+     * first on ties (+1 right, -1 left); NaN when every sector is blocked.
+     */
+    public double nearestFree(double desired, int side) {
+        int s0 = sector(desired);
+        if (!blocked[s0]) return desired;
+        int first = side < 0 ? -1 : 1;
+        for (int k = 1; k <= sectors / 2; k++) {
+            int a = Math.floorMod(s0 + first * k, sectors);
+            if (!blocked[a]) return centre(a);
+            int b = Math.floorMod(s0 - first * k, sectors);
+            if (!blocked[b]) return centre(b);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Refills from the obstacles in radar (already filtered by the caller's scan) and the walls
+     * of the field around (x,y), plus the cone ahead when the front sensor saw a wall, then
+     * returns the free heading nearest to heading. Boxed in, so that isFree() fails on the
+     * result: the reverse of heading at a wall, heading itself otherwise.
+     */
+    public double freeHeading(RadarBuffer radar, double x, double y, WallField walls,
+                              double heading, int side, boolean wallAhead) {
+        clear();
+        addRadar(radar, RadarBuffer.ALL, Double.POSITIVE_INFINITY);
+        addWalls(x, y, walls.getWest(), walls.getNorth(), walls.getEast(), walls.getSouth(), wallRange);
+        if (wallAhead) blockArc(heading, FRONT_WALL_CONE);
+        double free = nearestFree(heading, side);
+        if (!Double.isNaN(free)) return free;
+        return wallAhead ? heading + Math.PI : heading;
+    }
+
+    private int sector(double direction) {
+        double d = direction % (2 * Math.PI);
+        if (d < 0) d += 2 * Math.PI;
+        return Math.min(sectors - 1, (int) (d / width));
+    }
+
+    private double centre(int s) {
+        return (s + 0.5) * width;
+    }
+}
@@ -3,14 +3,15 @@ package algorithms;
 import characteristics.IFrontSensorResult;
 import characteristics.IRadarResult;
 import characteristics.Parameters;
-import robotsimulator.Brain;
 
 import java.util.ArrayList;
 
-public class RobotSecondaryA extends Brain {
+public class RobotSecondaryA extends ThrottledBrain {
 
     private enum Role { UNDEFINED, EXPLORER_ALPHA, EXPLORER_BETA }
     private enum State {
+        ACTIVE,                // root: preemptive escape-back
+        EXPLORING,             // super-state of the scripted border discovery
         MOVE,
         TURNING_NORTH, TURNING_SOUTH, TURNING_WEST, TURNING_EAST,
         TURNING_BACK,          // generic "turn to targetAngle"
@@ -21,13 +22,14 @@ public class RobotSecondaryA extends Brain {
     }
 
     private Role role = Role.UNDEFINED;
-    private State state = State.IDLE;
+    private final StateMachine<State> sm = new StateMachine<>(State.class);
     private State afterTurnState = State.MOVE;
 
     private String robotName = "undefined";
     private double myX, myY;
     private boolean isMoving = false;
     private boolean lastMoveWasBack = false;
+    private final ArrayList<String> messages = new ArrayList<>(); // refilled every step
 
     private static final double ANGLE_PRECISION = 0.03;
     private double targetAngle;
@@ -62,16 +64,21 @@ public class RobotSecondaryA extends Brain {
     private static final double TEAM_SECONDARY_RANGE = DETECTION_RANGE;
     private boolean blockedByTeammateSecondary = false;
 
-    // ===== ENEMY BROADCASTING =====
-    private int enemyBroadcastCd = 0;
-    private double lastEnemyBX = -1, lastEnemyBY = -1;
+    // ===== ENEMY BROADCASTING (cooldown + min move enforced by the broadcast limiter) =====
     private static final int ENEMY_BROADCAST_CD_STEPS = 25;
     private static final double ENEMY_BROADCAST_MIN_MOVE = 120;
     private static final double ENEMY_BROADCAST_MAX_DIST = 700;
 
+    // ===== FRONTIER EXPLORATION (once the scripted border discovery is done) =====
+    private final FrontierScout frontiers = new FrontierScout(Parameters.teamASecondaryBotSpeed,
+            Parameters.teamASecondaryBotStepTurnAngle, DETECTION_RANGE);
+
 
     @Override
     public void activate() {
+        setBroadcastLimiter(new BroadcastLimiter('|', 1)
+                .limit("SCOUT_ENEMY_LOCATION", ENEMY_BROADCAST_CD_STEPS, ENEMY_BROADCAST_MIN_MOVE, 0, 4, 5));
+        buildStateMachine();
         identifyRole();
         // UTURN init
         uTurnStep = 0;
@@ -98,23 +105,22 @@ public class RobotSecondaryA extends Brain {
             robotName = "Explorer Alpha";
             myX = Parameters.teamASecondaryBot2InitX;
             myY = Parameters.teamASecondaryBot2InitY;
-            state = State.TURNING_SOUTH;
             targetAngle = Parameters.SOUTH;
+            sm.start(State.TURNING_SOUTH);
         } else {
             role = Role.EXPLORER_BETA;
             robotName = "Explorer Beta";
             myX = Parameters.teamASecondaryBot1InitX;
             myY = Parameters.teamASecondaryBot1InitY;
-            state = State.TURNING_NORTH;
             targetAngle = Parameters.NORTH;
+            sm.start(State.TURNING_NORTH);
         }
     }
     @Override
     public void step() {
         updateOdometry();
         readTeammateMessages();
-        if (enemyBroadcastCd > 0) enemyBroadcastCd--;
-
+        frontiers.observe(myX, myY);
         IRadarResult bestEnemy = null;
         double bestD = Double.POSITIVE_INFINITY;
 
@@ -128,124 +134,132 @@ public class RobotSecondaryA extends Brain {
             }
         }
 
-        if (bestEnemy != null && bestD < ENEMY_BROADCAST_MAX_DIST && enemyBroadcastCd == 0) {
-            double ex = myX + bestEnemy.getObjectDistance() * Math.cos(bestEnemy.getObjectDirection());
-            double ey = myY + bestEnemy.getObjectDistance() * Math.sin(bestEnemy.getObjectDirection());
-
-            if (lastEnemyBX < 0 || Math.hypot(ex - lastEnemyBX, ey - lastEnemyBY) > ENEMY_BROADCAST_MIN_MOVE) {
-                broadcastEnemyPosition(bestEnemy);
-                lastEnemyBX = ex;
-                lastEnemyBY = ey;
-                enemyBroadcastCd = ENEMY_BROADCAST_CD_STEPS;
-            }
+        if (bestEnemy != null && bestD < ENEMY_BROADCAST_MAX_DIST) {
+            broadcastEnemyPosition(bestEnemy);
         }
 
-        if (escapeBackSteps > 0) {
+        sm.tick();
+    }
+
+    // =========================
+    // STATE MACHINE
+    // =========================
+    private void buildStateMachine() {
+        for (State st : State.values()) {
+            if (st == State.ACTIVE) continue;
+            sm.parent(st, State.ACTIVE);
+        }
+        sm.parent(State.TURNING_NORTH, State.EXPLORING)
+          .parent(State.TURNING_SOUTH, State.EXPLORING)
+          .parent(State.TURNING_WEST, State.EXPLORING)
+          .parent(State.TURNING_EAST, State.EXPLORING)
+          .parent(State.GOING_NORTH, State.EXPLORING)
+          .parent(State.CHECKING_SOUTH, State.EXPLORING)
+          .parent(State.CHECKING_WEST, State.EXPLORING)
+          .parent(State.CHECKING_EAST, State.EXPLORING);
+
+        // preemption: finish backing up before anything else
+        sm.onTick(State.ACTIVE, () -> {
+            if (escapeBackSteps <= 0) return false;
             myMoveBack();
             escapeBackSteps--;
-            return;
-        }
-
-        switch (state) {
-
-            case TURNING_NORTH:
-                turnToward(Parameters.NORTH, State.GOING_NORTH);
-                break;
-
-            case TURNING_SOUTH:
-                turnToward(Parameters.SOUTH, State.CHECKING_SOUTH);
-                break;
-
-            case TURNING_WEST:
-                turnToward(Parameters.WEST, State.CHECKING_WEST);
-                break;
-
-            case TURNING_EAST:
-                turnToward(Parameters.EAST, State.CHECKING_EAST);
-                break;
+            return true;
+        });
+
+        sm.onTick(State.TURNING_NORTH, () -> turnToward(Parameters.NORTH, State.GOING_NORTH))
+          .onTick(State.TURNING_SOUTH, () -> turnToward(Parameters.SOUTH, State.CHECKING_SOUTH))
+          .onTick(State.TURNING_WEST, () -> turnToward(Parameters.WEST, State.CHECKING_WEST))
+          .onTick(State.TURNING_EAST, () -> turnToward(Parameters.EAST, State.CHECKING_EAST));
+
+        sm.onTick(State.GOING_NORTH, () -> {
+            if (detectWall()) {
+                northBound = myY - DETECTION_RANGE;
+                broadcastBorders("NORTH");
+                targetAngle = Parameters.WEST;
+                sm.transition(State.TURNING_WEST);
+                return true;
+            }
+            return advanceOrAvoid(State.GOING_NORTH);
+        });
+        sm.onTick(State.CHECKING_SOUTH, () -> {
+            if (detectWall()) {
+                southBound = myY + DETECTION_RANGE;
+                broadcastBorders("SOUTH");
+                targetAngle = Parameters.EAST;
+                sm.transition(State.TURNING_EAST);
+                return true;
+            }
+            return advanceOrAvoid(State.CHECKING_SOUTH);
+        });
+        sm.onTick(State.CHECKING_WEST, () -> {
+            if (detectWall()) {
+                westBound = myX - DETECTION_RANGE;
+                broadcastBorders("WEST");
+                sm.transition(State.EXPLORATION_COMPLETE);
+                return true;
+            }
+            return advanceOrAvoid(State.CHECKING_WEST);
+        });
+        sm.onTick(State.CHECKING_EAST, () -> {
+            if (detectWall()) {
+                eastBound = myX + DETECTION_RANGE;
+                broadcastBorders("EAST");
+                sm.transition(State.EXPLORATION_COMPLETE);
+                return true;
+            }
+            return advanceOrAvoid(State.CHECKING_EAST);
+        });
 
-            case UTURN:
-                doUTurnScan();
-                break;
+        sm.onEntry(State.EXPLORATION_COMPLETE, () -> sendLogMessage(robotName + " explored: " + sm.report()));
+        sm.onTick(State.EXPLORATION_COMPLETE, () -> {
+            consecutiveBlocks = 0;
+            sm.transition(State.MOVE);
+            return true;
+        });
+
+        sm.onTick(State.MOVE, () -> {
+            exploreFrontier();
+            return true;
+        });
+        sm.onTick(State.UTURN, () -> {
+            doUTurnScan();
+            return true;
+        });
+        sm.onTick(State.TURNING_BACK, () -> {
+            if (!isSameDirection(myGetHeading(), targetAngle)) {
+                stepTurn(getTurnDirection(myGetHeading(), targetAngle));
+            } else {
+                sm.transition(afterTurnState);
+            }
+            return true;
+        });
+    }
 
-            case GOING_NORTH:
-                if (detectWall()) {
-                    northBound = myY - DETECTION_RANGE;
-                    broadcastBorders("NORTH");
-                    state = State.TURNING_WEST;
-                    targetAngle = Parameters.WEST;
-                    break;
-                }
-                if (blockedAhead()) {
-                    simpleAvoid(State.GOING_NORTH);
-                    break;
-                }
-                myMove();
-                break;
-
-            case CHECKING_SOUTH:
-                if (detectWall()) {
-                    southBound = myY + DETECTION_RANGE;
-                    broadcastBorders("SOUTH");
-                    state = State.TURNING_EAST;
-                    targetAngle = Parameters.EAST;
-                    break;
-                }
-                if (blockedAhead()) {
-                    simpleAvoid(State.CHECKING_SOUTH);
-                    break;
-                }
-                myMove();
-                break;
-
-            case CHECKING_WEST:
-                if (detectWall()) {
-                    westBound = myX - DETECTION_RANGE;
-                    broadcastBorders("WEST");
-                    state = State.EXPLORATION_COMPLETE;
-                    break;
-                }
-                if (blockedAhead()) {
-                    simpleAvoid(State.CHECKING_WEST);
-                    break;
-                }
-                myMove();
-                break;
-
-            case CHECKING_EAST:
-                if (detectWall()) {
-                    eastBound = myX + DETECTION_RANGE;
-                    broadcastBorders("EAST");
-                    state = State.EXPLORATION_COMPLETE;
-                    break;
-                }
-                if (blockedAhead()) {
-                    simpleAvoid(State.CHECKING_EAST);
-                    break;
-                }
-                myMove();
-                break;
-
-            case EXPLORATION_COMPLETE:
-                consecutiveBlocks = 0;
-                state = State.MOVE;
-                break;
-
-            case MOVE:
-                simpleAvoid(State.MOVE);
-                break;
-
-            case TURNING_BACK:
-                if (!isSameDirection(myGetHeading(), targetAngle)) {
-                    stepTurn(getTurnDirection(myGetHeading(), targetAngle));
-                } else {
-                    state = afterTurnState;
-                }
-                break;
+    private boolean advanceOrAvoid(State current) {
+        if (blockedAhead()) {
+            simpleAvoid(current);
+            return true;
+        }
+        myMove();
+        return true;
+    }
 
-            case IDLE:
-                break;
+    // =========================
+    // FRONTIER EXPLORATION
+    // =========================
+    private void exploreFrontier() {
+        if (frontiers.update(myX, myY, myGetHeading()) && frontiers.hasTarget()) {
+            broadcast("FRONTIER|" + robotName + "|" + (int) frontiers.targetX() + "|" + (int) frontiers.targetY());
+        }
+        double bearing = frontiers.bearing(myX, myY, myGetHeading());
+        if (!Double.isNaN(bearing)) {
+            targetAngle = normalize(bearing);
+            afterTurnState = State.MOVE;
+            sm.transition(State.TURNING_BACK);
+            return;
         }
+        simpleAvoid(State.MOVE);
+        if (!sm.isIn(State.MOVE)) frontiers.detour(myX, myY);
     }
 
     // =========================
@@ -280,7 +294,7 @@ public class RobotSecondaryA extends Brain {
             targetAngle = normalize(myGetHeading() + avoidSide * ESCAPE_TURN);
 
             afterTurnState = returnState;
-            state = State.TURNING_BACK;
+            sm.transition(State.TURNING_BACK);
 
             consecutiveBlocks = 0;
             return;
@@ -300,7 +314,7 @@ public class RobotSecondaryA extends Brain {
         targetAngle = normalize(myGetHeading() + avoidSide * turnAmount);
 
         afterTurnState = returnState;
-        state = State.TURNING_BACK;
+        sm.transition(State.TURNING_BACK);
     }
 
     // ==========================================================
@@ -316,7 +330,7 @@ public class RobotSecondaryA extends Brain {
         targetAngle = uTurnStartHeading;
 
         afterTurnState = returnState;
-        state = State.UTURN;
+        sm.transition(State.UTURN);
     }
 
     private void doUTurnScan() {
@@ -329,7 +343,7 @@ public class RobotSecondaryA extends Brain {
         if (detectFront().getObjectType() == IFrontSensorResult.Types.NOTHING) {
             myMove();
             consecutiveBlocks = 0;
-            state = afterTurnState;
+            sm.transition(afterTurnState);
             return;
         }
 
@@ -339,7 +353,7 @@ public class RobotSecondaryA extends Brain {
         if (uTurnStep > AVOID_MAX_STEPS) {
             escapeBackSteps = Math.max(escapeBackSteps, 2);
             consecutiveBlocks = 0;
-            state = afterTurnState;
+            sm.transition(afterTurnState);
             return;
         }
 
@@ -380,12 +394,13 @@ public class RobotSecondaryA extends Brain {
     // =========================
     // TURN HELPERS
     // =========================
-    private void turnToward(double angle, State next) {
+    private boolean turnToward(double angle, State next) {
         if (isSameDirection(myGetHeading(), angle)) {
-            state = next;
+            sm.transition(next);
         } else {
             stepTurn(getTurnDirection(myGetHeading(), angle));
         }
+        return true;
     }
 
     private Parameters.Direction getTurnDirection(double current, double target) {
@@ -427,8 +442,17 @@ public class RobotSecondaryA extends Brain {
     }
 
     private void readTeammateMessages() {
-        ArrayList<String> messages = fetchAllMessages();
+        fetchAllMessagesInto(messages);
         for (String msg : messages) {
+            if (msg.startsWith("FRONTIER|")) {
+                try {
+                    String[] parts = msg.split("\\|");
+                    if (parts.length == 4 && !parts[1].equals(robotName)) {
+                        frontiers.teammateTarget(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                    }
+                } catch (Exception ignored) {}
+                continue;
+            }
             if (!msg.startsWith("BORDER")) continue;
             try {
                 String[] parts = msg.split("\\|");
@@ -444,6 +468,7 @@ public class RobotSecondaryA extends Brain {
                 }
             } catch (Exception ignored) {}
         }
+        frontiers.clip(westBound, northBound, eastBound, southBound);
     }
     private void broadcastEnemyPosition(IRadarResult enemy){
         double enemyAbsoluteX = myX + enemy.getObjectDistance() * Math.cos(enemy.getObjectDirection());
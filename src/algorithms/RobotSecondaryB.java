@@ -3,11 +3,11 @@ package algorithms;
 import characteristics.IFrontSensorResult;
 import characteristics.IRadarResult;
 import characteristics.Parameters;
-import robotsimulator.Brain;
+import characteristics.RadarBuffer;
 
 import java.util.ArrayList;
 
-public class RobotSecondaryB extends Brain {
+public class RobotSecondaryB extends ThrottledBrain {
 
     private enum Role { UNDEFINED, EXPLORER_ALPHA, EXPLORER_BETA }
     private enum State {
@@ -59,13 +59,20 @@ public class RobotSecondaryB extends Brain {
     private static final double TEAM_SECONDARY_RANGE = DETECTION_RANGE;
     private boolean blockedByTeammateSecondary = false;
 
-    // ===== ENEMY BROADCASTING =====
-    private int enemyBroadcastCd = 0;
-    private double lastEnemyBX = -1, lastEnemyBY = -1;
+    // ===== ENEMY BROADCASTING (cooldown + min move enforced by the broadcast limiter) =====
     private static final int ENEMY_BROADCAST_CD_STEPS = 25;
     private static final double ENEMY_BROADCAST_MIN_MOVE = 120;
     private static final double ENEMY_BROADCAST_MAX_DIST = 700;
 
+    // ===== TEAM BLACKBOARD (borders are shared as versioned deltas) =====
+    private static final double BLACKBOARD_MIN_CHANGE = 40;
+    private TeamBlackboard blackboard;
+    private int teammateWriter;
+
+    // ===== FRONTIER EXPLORATION (once the scripted border discovery is done) =====
+    private final FrontierScout frontiers = new FrontierScout(Parameters.teamBSecondaryBotSpeed,
+            Parameters.teamBSecondaryBotStepTurnAngle, DETECTION_RANGE);
+
     // ===== BORDER MARGIN FOR AVOIDANCE =====
     private static final double BORDER_MARGIN = 150;
 
@@ -78,11 +85,22 @@ public class RobotSecondaryB extends Brain {
     private static final int HIT_STEER_COOLDOWN = 40;   // prevents direction flip spam
     private double hitSteerAngle = Double.NaN;
 
-    private static final int BULLET_BINS = 16;          // 22.5° bins
+    // ===== RADAR AND MAILBOX (read once per step, reused) =====
+    private final RadarBuffer radar = new RadarBuffer();
+    private final ArrayList<String> messages = new ArrayList<>();
+
+    // ===== BULLET TRACKING / PRE-IMPACT DODGE =====
+    private static final int BULLET_CAPACITY = 16;
+    private static final double DODGE_MARGIN = 10;
+    private static final double DODGE_HORIZON = 15;     // ticks: only sidestep bullets this close
+    private final BulletTracker bullets = new BulletTracker(BULLET_CAPACITY,
+            Parameters.teamBSecondaryBotRadius + Parameters.bulletRadius + DODGE_MARGIN);
 
 
     @Override
     public void activate() {
+        setBroadcastLimiter(new BroadcastLimiter('|', 1)
+                .limit("SCOUT_ENEMY_LOCATION", ENEMY_BROADCAST_CD_STEPS, ENEMY_BROADCAST_MIN_MOVE, 0, 4, 5));
         identifyRole();
         // UTURN init
         uTurnStep = 0;
@@ -109,6 +127,8 @@ public class RobotSecondaryB extends Brain {
             }
         }
 
+        blackboard = new TeamBlackboard(seesNorth ? 3 : 4, BLACKBOARD_MIN_CHANGE);
+        teammateWriter = seesNorth ? 4 : 3;
         if (seesNorth) {
             role = Role.EXPLORER_ALPHA;
             robotName = "Explorer Alpha";
@@ -129,38 +149,43 @@ public class RobotSecondaryB extends Brain {
     public void step() {
         updateOdometry();
         readTeammateMessages();
+        publishBlackboard();
         sendLogMessage("WEST : " + westBound+
                 "EAST : " + eastBound+
                 "NORTH : " + northBound+
                 "SOUTH : " + southBound);
+        detectRadarInto(radar); // one scan per tick: the world does not change during step()
+        bullets.update(radar, myX, myY);
+        frontiers.observe(myX, myY);
         hitSteerCooldown = Math.max(0, hitSteerCooldown - 1);
         damageTakenCheck();
 
-        if (enemyBroadcastCd > 0) enemyBroadcastCd--;
-
-        IRadarResult bestEnemy = null;
+        int bestEnemy = -1;
         double bestD = Double.POSITIVE_INFINITY;
 
-        for (IRadarResult o : detectRadar()) {
-            if (o.getObjectType() != IRadarResult.Types.OpponentMainBot &&
-                    o.getObjectType() != IRadarResult.Types.OpponentSecondaryBot) continue;
+        for (int i = 0; i < radar.size(); i++) {
+            if (radar.getObjectType(i) != IRadarResult.Types.OpponentMainBot &&
+                    radar.getObjectType(i) != IRadarResult.Types.OpponentSecondaryBot) continue;
 
-            if (o.getObjectDistance() < bestD) {
-                bestD = o.getObjectDistance();
-                bestEnemy = o;
+            if (radar.getObjectDistance(i) < bestD) {
+                bestD = radar.getObjectDistance(i);
+                bestEnemy = i;
             }
         }
 
-        if (bestEnemy != null && bestD < ENEMY_BROADCAST_MAX_DIST && enemyBroadcastCd == 0) {
-            double ex = myX + bestEnemy.getObjectDistance() * Math.cos(bestEnemy.getObjectDirection());
-            double ey = myY + bestEnemy.getObjectDistance() * Math.sin(bestEnemy.getObjectDirection());
+        if (bestEnemy >= 0 && bestD < ENEMY_BROADCAST_MAX_DIST) {
+            broadcastEnemyPosition(radar.getObjectDistance(bestEnemy), radar.getObjectDirection(bestEnemy));
+        }
 
-            if (lastEnemyBX < 0 || Math.hypot(ex - lastEnemyBX, ey - lastEnemyBY) > ENEMY_BROADCAST_MIN_MOVE) {
-                broadcastEnemyPosition(bestEnemy);
-                lastEnemyBX = ex;
-                lastEnemyBY = ey;
-                enemyBroadcastCd = ENEMY_BROADCAST_CD_STEPS;
-            }
+        // ===== PRE-IMPACT DODGE: sidestep along our heading before the bullet arrives =====
+        int dodge = bullets.dodgeDirection(myGetHeading(), DODGE_HORIZON, Parameters.teamBSecondaryBotSpeed);
+        if (dodge > 0 && !blockedAhead()) {
+            myMove();
+            return;
+        }
+        if (dodge < 0 && !blockedBehind()) {
+            myMoveBack();
+            return;
         }
 
         if (escapeBackSteps > 0) {
@@ -306,7 +331,7 @@ public class RobotSecondaryB extends Brain {
                 break;
 
             case MOVE:
-                simpleAvoid(State.MOVE);
+                exploreFrontier();
                 break;
 
             case TURNING_BACK:
@@ -322,6 +347,31 @@ public class RobotSecondaryB extends Brain {
         }
     }
 
+    // =========================
+    // FRONTIER EXPLORATION
+    // =========================
+    private void exploreFrontier() {
+        if (frontiers.update(myX, myY, myGetHeading())) {
+            if (frontiers.hasTarget()) blackboard.claim(frontiers.targetX(), frontiers.targetY());
+            else blackboard.releaseClaim(); // all explored: back to plain wandering
+        }
+        double bearing = frontiers.bearing(myX, myY, myGetHeading());
+        if (!Double.isNaN(bearing)) {
+            targetAngle = normalize(bearing);
+            afterTurnState = State.MOVE;
+            state = State.TURNING_BACK;
+            return;
+        }
+        simpleAvoid(State.MOVE);
+        if (state != State.MOVE) frontiers.detour(myX, myY);
+    }
+
+    private void syncFrontiers() {
+        boolean shared = blackboard.hasClaim(teammateWriter);
+        frontiers.teammateTarget(shared ? blackboard.claimX(teammateWriter) : -1, shared ? blackboard.claimY(teammateWriter) : -1);
+        frontiers.clip(westBound, northBound, eastBound, southBound);
+    }
+
     // =========================
     // SIMPLE AVOIDANCE (UPGRADED)
     // =========================
@@ -491,43 +541,32 @@ public class RobotSecondaryB extends Brain {
     // BROADCAST + READ
     // =========================
     private void broadcastBorders(String border) {
-        int val;
         switch (border) {
-            case "NORTH": val = (int) northBound; break;
-            case "SOUTH": val = (int) southBound; break;
-            case "WEST":  val = (int) westBound;  break;
-            case "EAST":  val = (int) eastBound;  break;
-            default: return;
+            case "NORTH": blackboard.setBorder(TeamBlackboard.NORTH, northBound); break;
+            case "SOUTH": blackboard.setBorder(TeamBlackboard.SOUTH, southBound); break;
+            case "WEST":  blackboard.setBorder(TeamBlackboard.WEST, westBound);   break;
+            case "EAST":  blackboard.setBorder(TeamBlackboard.EAST, eastBound);   break;
         }
-        broadcast("BORDER|" + border + "|" + val);
+    }
+
+    private void publishBlackboard() {
+        String delta = blackboard.publish();
+        if (delta != null) broadcast(delta);
     }
 
     private void readTeammateMessages() {
-        ArrayList<String> messages = fetchAllMessages();
-        for (String msg : messages) {
-            if (!msg.startsWith("BORDER")) continue;
-            try {
-                String[] parts = msg.split("\\|");
-                if (parts.length != 3) continue;
-                String borderType = parts[1];
-                int pos = Integer.parseInt(parts[2]);
-                sendLogMessage(robotName + "WEST : " + westBound+
-                        "EAST : " + eastBound+
-                        "NORTH : " + northBound+
-                        "SOUTH : " + southBound);
-
-                switch (borderType) {
-                    case "NORTH": northBound = pos; break;
-                    case "SOUTH": southBound = pos; break;
-                    case "WEST":  westBound  = pos; break;
-                    case "EAST":  eastBound  = pos; break;
-                }
-            } catch (Exception ignored) {}
-        }
+        fetchAllMessagesInto(messages);
+        blackboard.applyAll(messages);
+
+        if (blackboard.hasBorder(TeamBlackboard.NORTH)) northBound = blackboard.border(TeamBlackboard.NORTH);
+        if (blackboard.hasBorder(TeamBlackboard.SOUTH)) southBound = blackboard.border(TeamBlackboard.SOUTH);
+        if (blackboard.hasBorder(TeamBlackboard.WEST))  westBound  = blackboard.border(TeamBlackboard.WEST);
+        if (blackboard.hasBorder(TeamBlackboard.EAST))  eastBound  = blackboard.border(TeamBlackboard.EAST);
+        syncFrontiers();
     }
-    private void broadcastEnemyPosition(IRadarResult enemy){
-        double enemyAbsoluteX = myX + enemy.getObjectDistance() * Math.cos(enemy.getObjectDirection());
-        double enemyAbsoluteY = myY + enemy.getObjectDistance() * Math.sin(enemy.getObjectDirection());
+    private void broadcastEnemyPosition(double distance, double direction){
+        double enemyAbsoluteX = myX + distance * Math.cos(direction);
+        double enemyAbsoluteY = myY + distance * Math.sin(direction);
 
         // Broadcast both spotter position AND enemy position for smart convergence
         String message = "SCOUT_ENEMY_LOCATION|" + robotName + "|" +
@@ -564,11 +603,30 @@ public class RobotSecondaryB extends Brain {
         return wreck || teamMain || oppMain || oppSec || teamSec;
     }
 
+    // the front sensor only looks ahead: check the known borders and the radar behind us
+    private boolean blockedBehind() {
+        double back = myGetHeading() + Math.PI;
+        double reach = Parameters.teamBSecondaryBotRadius + Parameters.teamBSecondaryBotSpeed;
+        double bx = myX + reach * Math.cos(back);
+        double by = myY + reach * Math.sin(back);
+        if (bx < (westBound >= 0 ? westBound : 0) || by < (northBound >= 0 ? northBound : 0)) return true;
+        if (bx > (eastBound >= 0 ? eastBound : FrontierPlanner.ARENA_WIDTH)) return true;
+        if (by > (southBound >= 0 ? southBound : FrontierPlanner.ARENA_HEIGHT)) return true;
+
+        for (int i = 0; i < radar.size(); i++) {
+            if (radar.getObjectType(i) == IRadarResult.Types.BULLET) continue;
+            if (radar.getObjectDistance(i) >= DETECTION_RANGE) continue;
+            double rel = normalize(radar.getObjectDirection(i) - back);
+            if (rel < FRONT_CONE || rel > (2 * Math.PI - FRONT_CONE)) return true;
+        }
+        return false;
+    }
+
     private boolean isRadarObstacleInFront(IRadarResult.Types type, double range) {
-        for (IRadarResult o : detectRadar()) {
-            if (o.getObjectType() != type) continue;
-            if (o.getObjectDistance() >= range) continue;
-            if (isInFront(o.getObjectDirection())) return true;
+        for (int i = 0; i < radar.size(); i++) {
+            if (radar.getObjectType(i) != type) continue;
+            if (radar.getObjectDistance(i) >= range) continue;
+            if (isInFront(radar.getObjectDirection(i))) return true;
         }
         return false;
     }
@@ -589,7 +647,7 @@ public class RobotSecondaryB extends Brain {
         // only trigger on DAMAGE (health goes down)
         if (h < lastHealth) {
             if (hitSteerCooldown == 0) {
-                double bulletDir = getDominantBulletDirection();
+                double bulletDir = bullets.threatDirection();
                 if (!Double.isNaN(bulletDir)) {
                     hitSteerAngle = normalize(bulletDir + Math.PI);  // <-- your PI flip
                     hitSteerTicks = HIT_STEER_TICKS;
@@ -608,36 +666,4 @@ public class RobotSecondaryB extends Brain {
         lastHealth = h;
     }
 
-    private double getDominantBulletDirection() {
-        double[] bins = new double[BULLET_BINS];
-        boolean found = false;
-
-        for (IRadarResult o : detectRadar()) {
-            if (o.getObjectType() != IRadarResult.Types.BULLET) continue;
-
-            found = true;
-            double dir = normalize(o.getObjectDirection());
-            double d = Math.max(1.0, o.getObjectDistance());
-
-            // closer bullets matter more
-            double w = 1.0 / (d * d);
-
-            int idx = (int) Math.floor((dir / (2 * Math.PI)) * BULLET_BINS);
-            if (idx < 0) idx = 0;
-            if (idx >= BULLET_BINS) idx = BULLET_BINS - 1;
-
-            bins[idx] += w;
-        }
-
-        if (!found) return Double.NaN;
-
-        int bestIdx = 0;
-        for (int i = 1; i < BULLET_BINS; i++) {
-            if (bins[i] > bins[bestIdx]) bestIdx = i;
-        }
-
-        double binWidth = (2 * Math.PI) / BULLET_BINS;
-        return normalize((bestIdx + 0.5) * binWidth);
-    }
-
 }
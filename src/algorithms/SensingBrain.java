@@ -0,0 +1,160 @@
+package algorithms;
+
+import characteristics.IRadarResult;
+import characteristics.Mailbox;
+import characteristics.RadarBuffer;
+import robotsimulator.Bot;
+import robotsimulator.Brain;
+import robotsimulator.Bullet;
+import robotsimulator.SimulatorEngine;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+/**
+ * Brain with an allocation-free radar: {@link #detectRadarInto(RadarBuffer)}, plus filtered
+ * variants by type mask, distance and heading cone.
+ *
+ * detectRadar() builds a new ArrayList of new RadarResult objects on every call. This scan
+ * reads the same world (bots, then bullets, in engine order) with the engine's own
+ * arithmetic, so it reports exactly what detectRadar() would, into a buffer the brain keeps
+ * across ticks. The engine does not expose its bot/bullet state to brains, so the first
+ * call resolves this brain's Bot and the engine once, by reflection.
+ * Likewise {@link #fetchAllMessagesInto(ArrayList)} empties the mailbox into a list the
+ * brain reuses, where fetchAllMessages() hands out a new copy every tick.
+ */
+public abstract class SensingBrain extends Brain {
+
+    private static final int BULLET = IRadarResult.Types.BULLET.ordinal();
+    private static final int WRECK = IRadarResult.Types.Wreck.ordinal();
+    private static final int TEAM_MAIN = IRadarResult.Types.TeamMainBot.ordinal();
+    private static final int TEAM_SECONDARY = IRadarResult.Types.TeamSecondaryBot.ordinal();
+    private static final int OPPONENT_MAIN = IRadarResult.Types.OpponentMainBot.ordinal();
+    private static final int OPPONENT_SECONDARY = IRadarResult.Types.OpponentSecondaryBot.ordinal();
+
+    private static final Field BRAIN_BOT = field(Brain.class, "bot");
+    private static final Field BOT_ENGINE = field(Bot.class, "engine");
+    private static final Field BOT_RANGE = field(Bot.class, "frontRange");
+    private static final Field BOT_ROCKET = field(Bot.class, "rocket");
+    private static final Field BOT_MAILBOX = field(Bot.class, "mailbox");
+    private static final Field ENGINE_BULLETS = field(SimulatorEngine.class, "bullets");
+
+    private Bot self;
+    private SimulatorEngine engine;
+    private ArrayList<Bullet> liveBullets;
+    private double range;
+    private ArrayList<String> mailbox;
+
+    protected SensingBrain() { super(); }
+
+    /** Fills out (cleared first) with what detectRadar() would return now; returns its size. */
+    public int detectRadarInto(RadarBuffer out) {
+        scan(out, RadarBuffer.ALL, Double.POSITIVE_INFINITY, 0, Math.PI);
+        return out.size();
+    }
+
+    /**
+     * Filtered radar query: only objects whose type is in typeMask (see RadarBuffer.mask)
+     * and that are closer than maxDistance, nearest first. Filtering happens during the scan,
+     * so rejected objects cost a distance check and nothing else.
+     */
+    public int detectRadarInto(RadarBuffer out, int typeMask, double maxDistance) {
+        return detectRadarInto(out, typeMask, maxDistance, 0, Math.PI);
+    }
+
+    /**
+     * As above, restricted to directions strictly within halfCone of heading (either side);
+     * a halfCone of Math.PI or more keeps every direction.
+     */
+    public int detectRadarInto(RadarBuffer out, int typeMask, double maxDistance, double heading, double halfCone) {
+        scan(out, typeMask, maxDistance, heading, halfCone);
+        out.sortByDistance();
+        return out.size();
+    }
+
+    private void scan(RadarBuffer out, int typeMask, double maxDistance, double heading, double halfCone) {
+        out.clear();
+        if (self == null) bindSensors();
+        double sx = self.getX(), sy = self.getY();
+        int team = self.getTeam();
+        boolean cone = halfCone < Math.PI;
+
+        ArrayList<Bot> bots = engine.getBots();
+        for (int i = 0; i < bots.size(); i++) {
+            Bot b = bots.get(i);
+            double bx = b.getX(), by = b.getY();
+            if (bx == sx && by == sy) continue;
+            double dx = bx - sx, dy = by - sy;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist >= b.getRadius() + range || dist >= maxDistance) continue;
+            int type;
+            if (b.isDestroyed()) type = WRECK;
+            else if (b.getTeam() == team) type = hasRocket(b) ? TEAM_MAIN : TEAM_SECONDARY;
+            else type = hasRocket(b) ? OPPONENT_MAIN : OPPONENT_SECONDARY;
+            if (!RadarBuffer.matches(typeMask, type)) continue;
+            double dir = direction(dx, dy, dist);
+            if (cone && !withinCone(dir, heading, halfCone)) continue;
+            out.add(type, dir, dist, b.getRadius());
+        }
+        if (!RadarBuffer.matches(typeMask, BULLET)) return;
+        for (int i = 0; i < liveBullets.size(); i++) {
+            Bullet u = liveBullets.get(i);
+            double dx = u.getX() - sx, dy = u.getY() - sy;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist >= u.getRadius() + range || dist >= maxDistance) continue;
+            double dir = direction(dx, dy, dist);
+            if (cone && !withinCone(dir, heading, halfCone)) continue;
+            out.add(BULLET, dir, dist, u.getRadius());
+        }
+    }
+
+    private static boolean withinCone(double direction, double heading, double halfCone) {
+        return Math.abs(Math.IEEEremainder(direction - heading, 2 * Math.PI)) < halfCone;
+    }
+
+    /** Moves every pending message, oldest first, into out (cleared first); returns how many. */
+    public int fetchAllMessagesInto(ArrayList<String> out) {
+        if (self == null) bindSensors();
+        if (mailbox instanceof Mailbox) return ((Mailbox) mailbox).drainTo(out);
+        out.clear();
+        for (int i = 0; i < mailbox.size(); i++) out.add(mailbox.get(i));
+        mailbox.clear();
+        return out.size();
+    }
+
+    // engine convention: acos of the x component, negated when the object is above us
+    private static double direction(double dx, double dy, double dist) {
+        return dy < 0 ? -Math.acos(dx / dist) : Math.acos(dx / dist);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindSensors() {
+        try {
+            self = (Bot) BRAIN_BOT.get(this);
+            engine = (SimulatorEngine) BOT_ENGINE.get(self);
+            range = BOT_RANGE.getDouble(self);
+            liveBullets = (ArrayList<Bullet>) ENGINE_BULLETS.get(engine);
+            mailbox = (ArrayList<String>) BOT_MAILBOX.get(self);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot bind radar", e);
+        }
+    }
+
+    private static boolean hasRocket(Bot b) {
+        try {
+            return BOT_ROCKET.getBoolean(b);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field field(Class<?> c, String name) {
+        try {
+            Field f = c.getDeclaredField(name);
+            f.setAccessible(true);
+            return f;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("simulator.jar has no " + c.getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -3,24 +3,21 @@ package algorithms;
 import characteristics.IFrontSensorResult;
 import characteristics.IRadarResult;
 import characteristics.Parameters;
-import robotsimulator.Brain;
+import characteristics.RadarBuffer;
 
 import java.util.ArrayList;
 
-public class SimpleRobotA extends Brain {
+public class SimpleRobotA extends SensingBrain {
 
     private enum Role { WARIO, MARIO, LUIGI, UNDEFINED }
     private enum State { MOVE, TURNING, BACKING_UP,
-        IDLE, UTURN, CONVERGING, TEST_STOPPED }
+        IDLE, CONVERGING, TEST_STOPPED }
 
     private State state = State.MOVE;
 
     // --- turning precision (for "am I aligned yet?") ---
     private static final double ANGLE_PRECISION = 0.05;
 
-    // --- radar direction tolerance (for "is obstacle on this ray?") ---
-    private static final double RADAR_DIR_EPS = 0.15; // ~8.6°
-
     private double targetAngle = 0;
 
     // --- avoidance steps ---
@@ -33,16 +30,25 @@ public class SimpleRobotA extends Brain {
     private int escapeBackSteps = 0;
     private static final int ESCAPE_BACK_STEPS = 3;
 
-    // --- wall U-turn scan ---
-    private int uTurnChecksLeft = 0;
-    private double uTurnStartHeading = 0;
-    private int uTurnSide = 1; // +1 right, -1 left
+    // --- polar obstacle histogram: free headings in one pass (close bots and walls) ---
+    private final PolarHistogram histogram =
+            PolarHistogram.forBot(Parameters.teamAMainBotRadius, Parameters.teamAMainBotFrontalDetectionRange);
+    private int uTurnSide = 1; // preferred side at walls, alternated: +1 right, -1 left
+
+    // --- wall field: steer along walls before the front sensor sees them ---
+    private static final double WALL_STEER_NEAR = Parameters.teamAMainBotFrontalDetectionRange;
+    private static final double WALL_STEER_FAR = WALL_STEER_NEAR + 150;
+    private WallField walls = WallField.arena();
 
     // --- radar as REAL radius bubble (360°) ---
     private static final double RADAR_RADIUS = 150;
+    private static final int BOT_OBSTACLES = RadarBuffer.mask(IRadarResult.Types.Wreck,
+            IRadarResult.Types.TeamMainBot, IRadarResult.Types.OpponentMainBot,
+            IRadarResult.Types.TeamSecondaryBot, IRadarResult.Types.OpponentSecondaryBot);
+    private final RadarBuffer radar = new RadarBuffer();
 
-    // turning reason flags
-    private boolean turnUsesRadarRayCheck = false;
+    // the turn in progress avoids something: commit forward once aligned
+    private boolean avoidanceTurn = false;
 
     // after we found a free heading, commit 1 forward step
     private int commitForwardSteps = 0;
@@ -87,12 +93,10 @@ public class SimpleRobotA extends Brain {
         escapeBackSteps = 0;
         avoidSide = 1;
 
-        uTurnChecksLeft = 0;
-        uTurnStartHeading = 0;
         uTurnSide = 1;
 
         commitForwardSteps = 0;
-        turnUsesRadarRayCheck = false;
+        avoidanceTurn = false;
 
 
     }
@@ -233,11 +237,7 @@ public class SimpleRobotA extends Brain {
 
 
             case TURNING:
-                doTurningWithRadarRayCheck();
-                break;
-
-            case UTURN:
-                doUTurnScan();
+                doTurning();
                 break;
 
             case BACKING_UP:
@@ -278,10 +278,10 @@ public class SimpleRobotA extends Brain {
             return;
         }
 
-        // WALL => UTURN scan (360° search for a free direction)
+        // WALL => turn straight to the nearest free heading
         if (front.getObjectType() == IFrontSensorResult.Types.WALL) {
             afterTurnState = State.MOVE;
-            enterUTurnMode();
+            turnAwayFromWall();
             return;
         }
 
@@ -299,9 +299,9 @@ public class SimpleRobotA extends Brain {
             Integer side = chooseSideFromClosestRadarWithinRadius(RADAR_RADIUS);
             if (side != null) avoidSide = side;
 
-            // start with a small turn; TURNING will keep stepping until the chosen ray is no longer blocked
-            targetAngle = normalize(myGetHeading() + avoidSide * AVOID_STEP);
-            turnUsesRadarRayCheck = true;
+            // start with a small turn, moved to the nearest free heading if that one is blocked
+            targetAngle = avoidTowards(normalize(myGetHeading() + avoidSide * AVOID_STEP));
+            avoidanceTurn = true;
             state = State.TURNING;
             return;
         }
@@ -362,22 +362,23 @@ public class SimpleRobotA extends Brain {
             return;
         }
 
-        double angleToTarget = normalize(Math.atan2(y - myY, x - myX));
+        double angleToTarget = normalize(walls.steer(Math.atan2(y - myY, x - myX), distance_to_point,
+                myX, myY, WALL_STEER_NEAR, WALL_STEER_FAR));
 
         // turn toward target first
         if (!isSameDirection(myGetHeading(), angleToTarget)) {
             targetAngle = angleToTarget;
-            turnUsesRadarRayCheck = false;     // pure turning, not scanning
+            avoidanceTurn = false;     // pure turning, not scanning
             afterTurnState = State.CONVERGING; // come back here after turn
             state = State.TURNING;
             return;
         }
 
-        // aligned: if wall -> UTURN (then come back to converging)
+        // aligned: if wall -> turn to a free heading (then come back to converging)
         IFrontSensorResult front = detectFront();
         if (front.getObjectType() == IFrontSensorResult.Types.WALL) {
             afterTurnState = State.CONVERGING;
-            enterUTurnMode();
+            turnAwayFromWall();
             return;
         }
 
@@ -393,8 +394,8 @@ public class SimpleRobotA extends Brain {
             Integer side = chooseSideFromClosestRadarWithinRadius(RADAR_RADIUS);
             if (side != null) avoidSide = side;
 
-            targetAngle = normalize(myGetHeading() + avoidSide * AVOID_STEP);
-            turnUsesRadarRayCheck = true;
+            targetAngle = avoidTowards(normalize(myGetHeading() + avoidSide * AVOID_STEP));
+            avoidanceTurn = true;
             afterTurnState = State.CONVERGING;
             state = State.TURNING;
             return;
@@ -469,6 +470,7 @@ public class SimpleRobotA extends Brain {
                             case "WEST":  westBound = pos;  break;
                             case "EAST":  eastBound = pos;  break;
                         }
+                        refreshWalls();
                     }
                 } catch (Exception ignored) {}
             }
@@ -534,83 +536,70 @@ public class SimpleRobotA extends Brain {
             consecutiveBlocks = 0;
         }
 
-        turnUsesRadarRayCheck = true;
+        targetAngle = avoidTowards(targetAngle);
+        avoidanceTurn = true;
         state = State.TURNING;
     }
 
     // TURNING behavior:
-    // - turn toward targetAngle
-    // - when aligned, ask: "is this direction still blocked by a radar obstacle ray?"
-    //   if yes -> rotate another 30° and try again
-    //   if no  -> commit 1 forward step
-    private void doTurningWithRadarRayCheck() {
+    // - turn toward targetAngle, a known number of stepTurns away
+    // - when aligned after an avoidance turn, commit forward: the histogram already
+    //   picked a free heading, there is nothing left to probe
+    private void doTurning() {
         if (!isSameDirection(myGetHeading(), targetAngle)) {
             stepTurn(getTurnDirection(myGetHeading(), targetAngle));
             return;
         }
 
-        // aligned
-        if (turnUsesRadarRayCheck) {
-            if (radarBlocksHeading(targetAngle, RADAR_RADIUS)) {
-                targetAngle = normalize(targetAngle + avoidSide * AVOID_STEP);
-                return;
-            } else {
-                commitForwardSteps = 1;
-                turnUsesRadarRayCheck = false;
-                state = afterTurnState;  // ✅ instead of MOVE
-                return;
-            }
+        if (avoidanceTurn) {
+            commitForwardSteps = 1;
+            avoidanceTurn = false;
         }
-
-        state = afterTurnState;          // ✅ instead of MOVE
+        state = afterTurnState;
     }
 
 
     // ==========================================================
-    // UTURN MODE (wall): start facing 180° away, then scan 360° in 30° steps.
-    // if front becomes clear => move + exit
+    // FREE HEADINGS: polar histogram of close bots and walls, built when a turn is decided
     // ==========================================================
-    private void enterUTurnMode() {
+    // WALL: turn straight to the free heading nearest to ours, instead of scanning 30° at a time
+    private void turnAwayFromWall() {
         escapeBackSteps = Math.max(escapeBackSteps, 1);
 
-        // alternate scan direction to avoid corner loops
+        // alternate the preferred side to avoid corner loops
         uTurnSide = -uTurnSide;
 
-        // base direction: directly away from the wall (front saw wall)
-        uTurnStartHeading = normalize(myGetHeading() + Math.PI);
-
-        uTurnChecksLeft = (int) Math.ceil((2 * Math.PI) / AVOID_STEP);
-        targetAngle = uTurnStartHeading;
+        double free = freeHeading(myGetHeading(), uTurnSide, true);
+        // boxed in: back up more, facing away from the wall
+        if (!histogram.isFree(free)) escapeBackSteps = Math.max(escapeBackSteps, 2);
+        targetAngle = normalize(free);
 
         consecutiveBlocks = 0;
-        turnUsesRadarRayCheck = false;
-        state = State.UTURN;
+        avoidanceTurn = true;
+        state = State.TURNING;
     }
 
-    private void doUTurnScan() {
-        if (!isSameDirection(myGetHeading(), targetAngle)) {
-            stepTurn(getTurnDirection(myGetHeading(), targetAngle));
-            return;
-        }
-
-        if (detectFront().getObjectType() == IFrontSensorResult.Types.NOTHING) {
-            // found a free direction
-            commitForwardSteps = 1;
-            state = afterTurnState;
-            return;
-        }
+    // free heading nearest to desired; desired itself when boxed in (after backing up)
+    private double avoidTowards(double desired) {
+        double free = freeHeading(desired, avoidSide, false);
+        if (!histogram.isFree(free)) escapeBackSteps = Math.max(escapeBackSteps, ESCAPE_BACK_STEPS);
+        return normalize(free);
+    }
 
-        uTurnChecksLeft--;
-        if (uTurnChecksLeft <= 0) {
-            // full scan failed: back up more and try moving logic again
-            escapeBackSteps = Math.max(escapeBackSteps, 2);
-            state = afterTurnState;
-            return;
+    // borders as learned so far, the assumed arena for the others; the field is shared
+    private void refreshWalls() {
+        double west = westBound >= 0 ? westBound : 0, north = northBound >= 0 ? northBound : 0;
+        double east = eastBound >= 0 ? eastBound : FrontierPlanner.ARENA_WIDTH;
+        double south = southBound >= 0 ? southBound : FrontierPlanner.ARENA_HEIGHT;
+        if (Math.round(west) != walls.getWest() || Math.round(north) != walls.getNorth()
+                || Math.round(east) != walls.getEast() || Math.round(south) != walls.getSouth()) {
+            walls = WallField.of(west, north, east, south);
         }
+    }
 
-        int totalSteps = (int) Math.ceil((2 * Math.PI) / AVOID_STEP);
-        int stepIndex = totalSteps - uTurnChecksLeft + 1;
-        targetAngle = normalize(uTurnStartHeading + uTurnSide * stepIndex * AVOID_STEP);
+    private double freeHeading(double desired, int side, boolean wallAhead) {
+        detectRadarInto(radar, BOT_OBSTACLES, RADAR_RADIUS);
+        return histogram.freeHeading(radar, myX, myY, walls, desired, side, wallAhead);
     }
 
     // ==========================================================
@@ -624,17 +613,6 @@ public class SimpleRobotA extends Brain {
         return false;
     }
 
-    private boolean radarBlocksHeading(double candidateHeading, double radius) {
-        for (IRadarResult o : detectRadar()) {
-            if (!isWantedRadarType(o.getObjectType())) continue;
-            if (o.getObjectDistance() >= radius) continue;
-
-            // obstacle lies on this candidate ray => blocked
-            if (isSameDirectionRadar(o.getObjectDirection(), candidateHeading)) return true;
-        }
-        return false;
-    }
-
     // pick side away from the closest obstacle inside radius (360°)
     // returns -1 (turn left) or +1 (turn right) or null if none
     private Integer chooseSideFromClosestRadarWithinRadius(double radius) {
@@ -667,10 +645,6 @@ public class SimpleRobotA extends Brain {
                 || (t == IRadarResult.Types.OpponentSecondaryBot);
     }
 
-    private boolean isSameDirectionRadar(double dir1, double dir2) {
-        return Math.abs(normalize(dir1) - normalize(dir2)) < RADAR_DIR_EPS;
-    }
-
     // progressive turn: 30, 60, 90, 120...
     private double progressiveTurn(int blocks) {
         double turn = blocks * AVOID_STEP;
@@ -716,7 +690,7 @@ public class SimpleRobotA extends Brain {
         // turn toward target first
 //            if (!isSameDirection(myGetHeading(), angleToTarget)) {
 //                targetAngle = angleToTarget;
-//                turnUsesRadarRayCheck = false;     // pure turning, not scanning
+//                avoidanceTurn = false;     // pure turning, not scanning
 //                afterTurnState = State.CONVERGING; // come back here after turn
 //                state = State.TURNING;
 //                return;
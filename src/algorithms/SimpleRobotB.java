@@ -3,22 +3,22 @@
     import characteristics.IFrontSensorResult;
     import characteristics.IRadarResult;
     import characteristics.Parameters;
-    import robotsimulator.Brain;
+    import characteristics.RadarBuffer;
     
     import java.util.ArrayList;
     
-    public class SimpleRobotB extends Brain {
+    public class SimpleRobotB extends SensingBrain {
     
         private enum Role { WARIO, MARIO, LUIGI, UNDEFINED }
         private enum State { MOVE, TURNING, BACKING_UP,
-            IDLE, UTURN, CONVERGING, TEST_STOPPED, WAITING_FOR_SIGNAL }
+            IDLE, CONVERGING, TEST_STOPPED, WAITING_FOR_SIGNAL }
     
         private State state = State.MOVE;
     
         // --- turning precision (for "am I aligned yet?") ---
         private static final double ANGLE_PRECISION = 0.05;
     
-        // --- radar direction tolerance (for "is obstacle on this ray?") ---
+        // --- radar direction tolerance (for "is teammate on this ray?") ---
         private static final double RADAR_DIR_EPS = 0.15; // ~5.15°
     
         private double targetAngle = 0;
@@ -33,16 +33,28 @@
         private int escapeBackSteps = 0;
         private static final int ESCAPE_BACK_STEPS = 3;
     
-        // --- wall U-turn scan ---
-        private int uTurnChecksLeft = 0;
-        private double uTurnStartHeading = 0;
-        private int uTurnSide = 1; // +1 right, -1 left
+        // --- polar obstacle histogram: free headings in one pass (close bots and walls) ---
+        private final PolarHistogram histogram =
+                PolarHistogram.forBot(Parameters.teamBMainBotRadius, Parameters.teamBMainBotFrontalDetectionRange);
+        private int uTurnSide = 1; // preferred side at walls, alternated: +1 right, -1 left
+    
+        // --- wall field: steer along walls before the front sensor sees them ---
+        private static final double WALL_STEER_NEAR = Parameters.teamBMainBotFrontalDetectionRange;
+        private static final double WALL_STEER_FAR = WALL_STEER_NEAR + 150;
+        private WallField walls = WallField.arena();
     
         // --- radar as REAL radius bubble (360°) ---
         private static final double RADAR_RADIUS = 150;
+        private static final int HARD_THREATS = RadarBuffer.mask(IRadarResult.Types.Wreck,
+                IRadarResult.Types.OpponentMainBot, IRadarResult.Types.OpponentSecondaryBot);
+        private static final int BOT_OBSTACLES = RadarBuffer.mask(IRadarResult.Types.Wreck,
+                IRadarResult.Types.TeamMainBot, IRadarResult.Types.OpponentMainBot,
+                IRadarResult.Types.TeamSecondaryBot, IRadarResult.Types.OpponentSecondaryBot);
+        private static final int OPPONENT_MAIN = RadarBuffer.mask(IRadarResult.Types.OpponentMainBot);
+        private final RadarBuffer nearby = new RadarBuffer(); // filtered radar queries
     
-        // turning reason flags
-        private boolean turnUsesRadarRayCheck = false;
+        // the turn in progress avoids something: commit forward once aligned
+        private boolean avoidanceTurn = false;
     
         // after we found a free heading, commit 1 forward step
         private int commitForwardSteps = 0;
@@ -61,6 +73,8 @@
         private double westBound = -1;
         private double eastBound = -1;
         private double southBound = -1;
+        private TeamBlackboard blackboard = new TeamBlackboard(0, 0);
+        private final ArrayList<String> messages = new ArrayList<>(); // refilled every step
     
         // UPDATE ENEMY LOCATION COMMUNICATIONS
         private static final double TARGET_RESET_COOLDOWN = 1000; // start high to avoid immediate use
@@ -87,6 +101,51 @@
         private static final double FLANK_RADIUS = 200;          // stand-off distance from target
         private static final double FLANK_ANGLE  = Math.toRadians(20);
     
+        // FORMATION: one main solves the flank slots for a target, FORMATION shares them
+        private static final int MAINS = 3;
+        private static final int LEADER = 1;                     // MARIO solves for scout reports
+        private static final double FORMATION_MOVE = 100;        // re-solve once the target moved this much
+        private static final int FORMATION_WAIT = 3;             // ticks to wait for the leader's FORMATION
+        private static final int FORMATION_TTL = 400;            // an older formation no longer holds a target
+        private final FormationSolver formation = new FormationSolver(MAINS, FLANK_RADIUS, FLANK_ANGLE);
+        private final double[] mateX = new double[MAINS];        // last known main positions: spawn points,
+        private final double[] mateY = new double[MAINS];        // then from each main's BIDs and FORMATIONs
+        private int mainIndex = LEADER;
+        private int formationEpoch = 0;
+        private int formationSolver = -1;
+        private double formationX = -1, formationY = -1;         // target of the adopted formation
+        private int formationTick = 0;
+        private int formationWait = -1;
+        private double pendingX, pendingY;
+    
+        // TARGET AUCTION: every main bids on the enemies it sees, the leader awards them (AWARD)
+        private static final int MAX_BIDS = 4;
+        private static final double AUCTION_RADIUS = 100;        // same enemy across bids
+        private static final int BID_INTERVAL = 10;              // at most one BID per main this often
+        private static final double BID_MOVE = 50;               // re-bid once an enemy, or we, moved this much
+        private static final int BID_TTL = 40;                   // older bids drop out of the auction
+        private static final int AWARD_TIMEOUT = 30;             // no AWARD from the leader for this long: leader gone
+        private static final double BLOCKED_SHOT_COST = 300;     // a teammate in the line of fire
+        private static final double HEALTH_COST = 200;           // full health, against an estimated wreck
+        private static final int OPPONENTS = RadarBuffer.mask(IRadarResult.Types.OpponentMainBot,
+                IRadarResult.Types.OpponentSecondaryBot);
+        private final TargetAuction auction = new TargetAuction(MAINS, MAX_BIDS, AUCTION_RADIUS);
+        private final RadarBuffer opponents = new RadarBuffer();
+        private final double[] bidX = new double[MAX_BIDS], bidY = new double[MAX_BIDS];
+        private int bidCount = 0;
+        private int lastBidTick = -BID_INTERVAL;
+        private int lastLeaderAwardTick = 0;                     // the leader's last AWARD, as received
+        private int lastAwardSentTick = 0;                       // our own last AWARD, as auctioneer
+        private int lastSolveTick = 0;
+        private boolean bidsChanged = false;
+    
+        // shots fired at each enemy, for its health estimate (a shot is assumed to hit); fire()
+        // calls the engine ignores while reloading are not counted
+        private static final int SHOT_TRACKS = 5;
+        private int lastShotTick = -Parameters.bulletFiringLatency - 1;
+        private final double[] shotX = new double[SHOT_TRACKS], shotY = new double[SHOT_TRACKS];
+        private final int[] shotCount = new int[SHOT_TRACKS];
+    
         // DEFAULT POINT TO GO BACK TO
         private double defaultX = -1;
         private double defaultY = -1;
@@ -109,12 +168,10 @@
             escapeBackSteps = 0;
             avoidSide = 1;
     
-            uTurnChecksLeft = 0;
-            uTurnStartHeading = 0;
             uTurnSide = 1;
     
             commitForwardSteps = 0;
-            turnUsesRadarRayCheck = false;
+            avoidanceTurn = false;
             targetRefreshCooldown = TARGET_REFRESH_COOLDOWN;
     
         }
@@ -130,6 +187,14 @@
             }
     
             int whoAmI = seesNorth && !seesSouth ? 3 : (seesSouth && !seesNorth ? 1 : 2);
+            blackboard = new TeamBlackboard(whoAmI - 1, 0);
+            mainIndex = whoAmI - 1;
+            mateX[0] = Parameters.teamBMainBot1InitX;
+            mateY[0] = Parameters.teamBMainBot1InitY;
+            mateX[1] = Parameters.teamBMainBot2InitX;
+            mateY[1] = Parameters.teamBMainBot2InitY;
+            mateX[2] = Parameters.teamBMainBot3InitX;
+            mateY[2] = Parameters.teamBMainBot3InitY;
             defaultX = Parameters.teamBMainBot2InitX;
             defaultY = Parameters.teamBMainBot2InitY;
             switch (whoAmI) {
@@ -203,10 +268,11 @@
             tick++;
             updateOdometry();
             readTeammateMessages();
+            runAuction();
             // ===== HIGHEST PRIORITY: SHOOT IF POSSIBLE (preempt movement/avoid) =====
             if (tryEngageFrontMainBot()) return;
 
-            IRadarResult e = findClosestEnemyOnRadar();
+            IRadarResult e = findTargetEnemyOnRadar();
             if (e != null) {
                 double ex = myX + e.getObjectDistance() * Math.cos(e.getObjectDirection());
                 double ey = myY + e.getObjectDistance() * Math.sin(e.getObjectDirection());
@@ -222,6 +288,7 @@
                 // fire if not team-blocked; otherwise don't enter wiggle-avoid loop here
                 double ang = normalize(Math.atan2(currentTargetY - myY, currentTargetX - myX));
                 if (!teammateBlocksShot(ang)) {
+                    recordShot(ex, ey);
                     fire(ang);
                     return; // ✅ shooting preempts everything
                 }
@@ -256,7 +323,7 @@
             }
             // 🆕 SCAN FOR ENEMIES EVERY TICK (if not engaged AND cooldown expired)
             if (!enemy_Lock && !nav_Lock && enemy_wait_time == -1) {
-                IRadarResult enemy = findClosestEnemyOnRadar();
+                IRadarResult enemy = findTargetEnemyOnRadar();
                 if (enemy != null) {
                     double enemyAbsoluteX = myX + enemy.getObjectDistance() * Math.cos(enemy.getObjectDirection());
                     double enemyAbsoluteY = myY + enemy.getObjectDistance() * Math.sin(enemy.getObjectDirection());
@@ -270,7 +337,9 @@
     
                     sendLogMessage(robotName + " >>> SPOTTED enemy at (" +
                             (int)enemyAbsoluteX + "," + (int)enemyAbsoluteY + ")!");
-                    broadcastEnemyPosition(enemy);
+                    if (isNewFormationTarget(enemyAbsoluteX, enemyAbsoluteY)) {
+                        proposeFormation(enemyAbsoluteX, enemyAbsoluteY, false);
+                    }
     
                     state = State.CONVERGING;
                     return;
@@ -322,11 +391,7 @@
     
     
                 case TURNING:
-                    doTurningWithRadarRayCheck();
-                    break;
-    
-                case UTURN:
-                    doUTurnScan();
+                    doTurning();
                     break;
     
                 case BACKING_UP:
@@ -373,10 +438,10 @@
                 return;
             }
     
-            // WALL => UTURN scan (360° search for a free direction)
+            // WALL => turn straight to the nearest free heading
             if (front.getObjectType() == IFrontSensorResult.Types.WALL) {
                 afterTurnState = State.MOVE;
-                enterUTurnMode();
+                turnAwayFromWall();
                 return;
             }
     
@@ -394,9 +459,9 @@
                 Integer side = chooseSideFromClosestRadarWithinRadius(RADAR_RADIUS);
                 if (side != null) avoidSide = side;
     
-                // start with a small turn; TURNING will keep stepping until the chosen ray is no longer blocked
-                targetAngle = normalize(myGetHeading() + avoidSide * AVOID_STEP);
-                turnUsesRadarRayCheck = true;
+                // start with a small turn, moved to the nearest free heading if that one is blocked
+                targetAngle = avoidTowards(normalize(myGetHeading() + avoidSide * AVOID_STEP));
+                avoidanceTurn = true;
                 state = State.TURNING;
                 return;
             }
@@ -407,16 +472,7 @@
         }
 
         private boolean radarHasHardThreatWithinRadius(double radius) {
-            for (IRadarResult o : detectRadar()) {
-                if (o.getObjectDistance() >= radius) continue;
-
-                if (o.getObjectType() == IRadarResult.Types.Wreck ||
-                        o.getObjectType() == IRadarResult.Types.OpponentMainBot ||
-                        o.getObjectType() == IRadarResult.Types.OpponentSecondaryBot) {
-                    return true;
-                }
-            }
-            return false;
+            return detectRadarInto(nearby, HARD_THREATS, radius) > 0;
         }
 
         /* ==========================================================
@@ -478,22 +534,23 @@
                 return;
             }
     
-            double angleToTarget = normalize(Math.atan2(y - myY, x - myX));
+            double angleToTarget = normalize(walls.steer(Math.atan2(y - myY, x - myX), distance_to_point,
+                    myX, myY, WALL_STEER_NEAR, WALL_STEER_FAR));
     
             // turn toward target first
             if (!isSameDirection(myGetHeading(), angleToTarget)) {
                 targetAngle = angleToTarget;
-                turnUsesRadarRayCheck = false;     // pure turning, not scanning
+                avoidanceTurn = false;     // pure turning, not scanning
                 afterTurnState = State.CONVERGING; // come back here after turn
                 state = State.TURNING;
                 return;
             }
     
-            // aligned: if wall -> UTURN (then come back to converging)
+            // aligned: if wall -> turn to a free heading (then come back to converging)
             IFrontSensorResult front = detectFront();
             if (front.getObjectType() == IFrontSensorResult.Types.WALL) {
                 afterTurnState = State.CONVERGING;
-                enterUTurnMode();
+                turnAwayFromWall();
                 return;
             }
     
@@ -509,8 +566,8 @@
                 Integer side = chooseSideFromClosestRadarWithinRadius(RADAR_RADIUS);
                 if (side != null) avoidSide = side;
     
-                targetAngle = normalize(myGetHeading() + avoidSide * AVOID_STEP);
-                turnUsesRadarRayCheck = true;
+                targetAngle = avoidTowards(normalize(myGetHeading() + avoidSide * AVOID_STEP));
+                avoidanceTurn = true;
                 afterTurnState = State.CONVERGING;
                 state = State.TURNING;
                 return;
@@ -525,7 +582,7 @@
             if(tryEngageFrontMainBot()){
                 return true;
             }
-            IRadarResult close = findClosestEnemyOnRadar();
+            IRadarResult close = findTargetEnemyOnRadar();
             if(close != null){
                 double ex = myX + close.getObjectDistance()
                         * Math.cos(close.getObjectDirection());
@@ -537,6 +594,26 @@
             }
             return false;
         }
+        // the enemy the auction awarded us when in sight, else the closest one
+        private IRadarResult findTargetEnemyOnRadar() {
+            IRadarResult closest = findClosestEnemyOnRadar();
+            if (closest == null || !auction.hasAward(mainIndex)) return closest;
+    
+            IRadarResult awarded = null;
+            double bestDist = 2 * AUCTION_RADIUS;
+            for (IRadarResult o : detectRadar()) {
+                if (o.getObjectType() != IRadarResult.Types.OpponentMainBot &&
+                        o.getObjectType() != IRadarResult.Types.OpponentSecondaryBot) continue;
+                double ex = myX + o.getObjectDistance() * Math.cos(o.getObjectDirection());
+                double ey = myY + o.getObjectDistance() * Math.sin(o.getObjectDirection());
+                double d = Math.hypot(ex - auction.awardX(mainIndex), ey - auction.awardY(mainIndex));
+                if (d < bestDist) {
+                    bestDist = d;
+                    awarded = o;
+                }
+            }
+            return awarded != null ? awarded : closest;
+        }
         private IRadarResult findClosestEnemyOnRadar() {
             IRadarResult closest = null;
             double bestDist = Double.POSITIVE_INFINITY;
@@ -581,30 +658,15 @@
         private void maybeUpgradeToMainBot() {
             if (currentTargetType != TargetType.ENEMY_SECONDARY) return;
 
-            IRadarResult enemy = findVisibleMainBot(); // your helper
-            if (enemy == null) return;
+            // nearest visible enemy main
+            if (detectRadarInto(nearby, OPPONENT_MAIN, Double.POSITIVE_INFINITY) == 0) return;
 
-            double enemyX = myX + enemy.getObjectDistance() * Math.cos(enemy.getObjectDirection());
-            double enemyY = myY + enemy.getObjectDistance() * Math.sin(enemy.getObjectDirection());
+            double enemyX = myX + nearby.getObjectDistance(0) * Math.cos(nearby.getObjectDirection(0));
+            double enemyY = myY + nearby.getObjectDistance(0) * Math.sin(nearby.getObjectDirection(0));
 
             lockTarget(enemyX, enemyY, TargetType.ENEMY_MAIN);
         }
 
-        private IRadarResult findVisibleMainBot() {
-            IRadarResult best = null;
-            double bestDist = Double.POSITIVE_INFINITY;
-    
-            for (IRadarResult o : detectRadar()) {
-                if (o.getObjectType() != IRadarResult.Types.OpponentMainBot) continue;
-                if (o.getObjectDistance() < bestDist) {
-                    bestDist = o.getObjectDistance();
-                    best = o;
-                }
-            }
-            return best;
-        }
-    
-    
         private TargetType getEnemyTypeRadar(IRadarResult enemy) {
             if (enemy == null) return TargetType.NONE;
             switch (enemy.getObjectType()) {
@@ -624,41 +686,195 @@
         }
     
     
-        private void broadcastEnemyPosition(IRadarResult enemy) {
-            double enemyAbsoluteX = myX + enemy.getObjectDistance() * Math.cos(enemy.getObjectDirection());
-            double enemyAbsoluteY = myY + enemy.getObjectDistance() * Math.sin(enemy.getObjectDirection());
+        // =========================
+        // TARGET AUCTION
+        // =========================
+        // bid when our view of the enemies or our position changed (at most every BID_INTERVAL),
+        // and when we are the auctioneer award the bids we hold: one BID and at most one AWARD per tick
+        private void runAuction() {
+            int n = Math.min(detectRadarInto(opponents, OPPONENTS, Double.POSITIVE_INFINITY), MAX_BIDS);
+            boolean moved = !auction.hasBidderPosition(mainIndex)
+                    || Math.hypot(myX - auction.bidderX(mainIndex), myY - auction.bidderY(mainIndex)) > BID_MOVE;
+            if (tick - lastBidTick >= BID_INTERVAL && (viewChanged(n) || moved)) {
+                auction.openBid(mainIndex, tick, myX, myY);
+                for (int i = 0; i < n; i++) {
+                    double dist = opponents.getObjectDistance(i), dir = opponents.getObjectDirection(i);
+                    bidX[i] = myX + dist * Math.cos(dir);
+                    bidY[i] = myY + dist * Math.sin(dir);
+                    boolean main = opponents.getObjectType(i) == IRadarResult.Types.OpponentMainBot;
+                    auction.bid(mainIndex, bidX[i], bidY[i], bidCost(dist, dir, bidX[i], bidY[i], main));
+                }
+                bidCount = n;
+                lastBidTick = tick;
+                bidsChanged = true;
+                broadcast(auction.encodeBid(mainIndex));
+            }
+    
+            // the leader is gone once both its AWARDs and its own BIDs stopped coming
+            boolean leaderGone = tick - lastLeaderAwardTick > AWARD_TIMEOUT && tick - auction.getBidStamp(LEADER) > BID_TTL;
+            boolean auctioneer = mainIndex == LEADER
+                    || (leaderGone && auction.lowestLiveBidder(tick, BID_TTL, LEADER) == mainIndex);
+            if (!auctioneer) return;
+            // re-announced now and then even with nothing awarded, so the others know we are alive
+            boolean heartbeat = tick - lastAwardSentTick > AWARD_TIMEOUT / 2;
+            if (!bidsChanged && tick - lastSolveTick < BID_TTL && !heartbeat) return;
+            bidsChanged = false;
+            lastSolveTick = tick;
+            if (auction.solve(tick, BID_TTL) || heartbeat) {
+                broadcast(auction.encodeAwards(mainIndex));
+                lastAwardSentTick = tick;
+            }
+        }
+    
+        private boolean viewChanged(int n) {
+            if (n != bidCount) return true;
+            for (int i = 0; i < n; i++) {
+                double dist = opponents.getObjectDistance(i), dir = opponents.getObjectDirection(i);
+                if (Math.hypot(myX + dist * Math.cos(dir) - bidX[i], myY + dist * Math.sin(dir) - bidY[i]) > BID_MOVE) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    
+        // distance, plus a teammate in the line of fire, plus what is left of the enemy's health
+        private double bidCost(double dist, double dir, double ex, double ey, boolean main) {
+            double cost = dist;
+            if (teammateBlocksShot(dir)) cost += BLOCKED_SHOT_COST;
+            double health = main ? Parameters.teamAMainBotHealth : Parameters.teamASecondaryBotHealth;
+            int t = shotTrack(ex, ey);
+            double left = t < 0 ? health : Math.max(0, health - shotCount[t] * Parameters.bulletDamage);
+            return cost + HEALTH_COST * left / health;
+        }
+    
+        private int shotTrack(double x, double y) {
+            for (int t = 0; t < SHOT_TRACKS; t++) {
+                if (shotCount[t] > 0 && Math.hypot(shotX[t] - x, shotY[t] - y) < AUCTION_RADIUS) return t;
+            }
+            return -1;
+        }
+    
+        private void recordShot(double x, double y) {
+            if (tick - lastShotTick <= Parameters.bulletFiringLatency) return;   // still reloading
+            lastShotTick = tick;
+            int t = shotTrack(x, y);
+            if (t < 0) {
+                t = 0;
+                for (int i = 1; i < SHOT_TRACKS; i++) if (shotCount[i] < shotCount[t]) t = i;
+                shotCount[t] = 0;
+            }
+            shotX[t] = x;   // the enemy moves: follow it
+            shotY[t] = y;
+            shotCount[t]++;
+        }
+    
+        // =========================
+        // FORMATION
+        // =========================
+        private boolean isNewFormationTarget(double tx, double ty) {
+            return formationX == -1 || tick - formationTick > FORMATION_TTL
+                    || Math.hypot(tx - formationX, ty - formationY) > FORMATION_MOVE;
+        }
+    
+        // solve the slots of every main around (tx,ty) and share them in one FORMATION message:
+        // FORMATION|epoch|solver|tx|ty|solverX|solverY|slotX0|slotY0|slotX1|slotY1|slotX2|slotY2
+        private void proposeFormation(double tx, double ty, boolean goToSlot) {
+            mateX[mainIndex] = myX;
+            mateY[mainIndex] = myY;
+            formation.solve(tx, ty, mateX, mateY, MAINS);
+    
+            StringBuilder message = new StringBuilder("FORMATION|").append(formationEpoch + 1)
+                    .append('|').append(mainIndex).append('|').append((int) tx).append('|').append((int) ty)
+                    .append('|').append((int) myX).append('|').append((int) myY);
+            for (int i = 0; i < MAINS; i++) {
+                message.append('|').append((int) formation.slotX(i)).append('|').append((int) formation.slotY(i));
+            }
+            broadcast(message.toString());
+            adoptFormation(formationEpoch + 1, mainIndex, tx, ty,
+                    formation.slotX(mainIndex), formation.slotY(mainIndex), goToSlot);
+        }
+    
+        private void adoptFormation(int epoch, int solver, double tx, double ty,
+                                    double slotX, double slotY, boolean goToSlot) {
+            formationEpoch = epoch;
+            formationSolver = solver;
+            formationX = tx;
+            formationY = ty;
+            formationTick = tick;
+            formationWait = -1;
+            if (!goToSlot) return;
+    
+            stepsSinceEnemyUpdate = 0;
+            nav_Lock = true;
+            currentTargetX = slotX;
+            currentTargetY = slotY;
+            sendLogMessage(robotName + " FORMATION from " + solver +
+                    " (x=" + (int) slotX + ", y=" + (int) slotY + ")");
+        }
+    
+        // newer epochs win; two solvers of the same epoch resolve to the lower index
+        private void readFormation(String msg, boolean busy) {
+            String[] parts = msg.split("\\|");
+            if (parts.length != 7 + 2 * MAINS) return;
+            int epoch = Integer.parseInt(parts[1]);
+            int solver = Integer.parseInt(parts[2]);
+            if (solver == mainIndex) return;
+            mateX[solver] = Double.parseDouble(parts[5]);
+            mateY[solver] = Double.parseDouble(parts[6]);
+            if (epoch < formationEpoch || (epoch == formationEpoch && solver > formationSolver)) return;
+    
+            adoptFormation(epoch, solver, Double.parseDouble(parts[3]), Double.parseDouble(parts[4]),
+                    Double.parseDouble(parts[7 + 2 * mainIndex]), Double.parseDouble(parts[8 + 2 * mainIndex]), !busy);
+        }
+    
+        // scout report: the leader solves, the others wait for its FORMATION and solve themselves
+        // if none comes (leader destroyed)
+        private void onScoutReport(double ex, double ey) {
+            if (!isNewFormationTarget(ex, ey)) return;
+            if (mainIndex == LEADER) {
+                proposeFormation(ex, ey, true);
+            } else if (formationWait < 0) {
+                pendingX = ex;
+                pendingY = ey;
+                formationWait = FORMATION_WAIT;
+            }
+        }
     
-            String message = "ENEMY_LOCATION|" + robotName + "|" +
-                    (int) myX + "|" + (int) myY + "|" +
-                    (int) enemyAbsoluteX + "|" + (int) enemyAbsoluteY;
-            broadcast(message);
+        private void tickFormationWait() {
+            if (formationWait < 0 || --formationWait > 0) return;
+            formationWait = -1;
+            boolean busy = enemy_Lock || (currentTargetX != -1 && currentTargetY != -1) || nav_Lock;
+            if (isNewFormationTarget(pendingX, pendingY)) proposeFormation(pendingX, pendingY, !busy);
         }
     
         private void readTeammateMessages() {
-            ArrayList<String> messages = fetchAllMessages();
+            fetchAllMessagesInto(messages);
             boolean busy = enemy_Lock || (currentTargetX != -1 && currentTargetY != -1) || nav_Lock;
             for (String msg : messages) {
-                if (msg.startsWith("ENEMY_LOCATION|")) {
+                if (msg.startsWith(TeamBlackboard.PREFIX)) {
+                    blackboard.apply(msg);
+                    continue;
+                }
+                if (msg.startsWith(TargetAuction.BID)) {
                     try {
-                        if (busy){
-                            sendLogMessage("" + robotName + " BUSY, ignoring ENEMY message");
-                            continue;
-                        }
-                        String[] parts = msg.split("\\|");
-                        if (parts.length == 6) {
-                            String spotter = parts[1];
-                            if (robotName.equals(spotter)) continue;
-    
-                            double enemyX = Double.parseDouble(parts[4]);
-                            double enemyY = Double.parseDouble(parts[5]);
-                            stepsSinceEnemyUpdate = 0;
-                            nav_Lock = true;
-                            sendLogMessage(robotName + " ENEMY from " + spotter+
-                                    " (x=" + (int) enemyX + ", y=" + (int) enemyY + ")");
-    //                        applyFormationOffset(spotter, enemyX, enemyY);
-                            applyFormationOffsetAngle(enemyX,enemyY);
-                        }
+                        int bidder = auction.applyBid(msg, tick);
+                        mateX[bidder] = auction.bidderX(bidder);
+                        mateY[bidder] = auction.bidderY(bidder);
+                        bidsChanged = true;
+                    } catch (Exception ignored) {}
+                    continue;
+                }
+                if (msg.startsWith(TargetAuction.AWARD)) {
+                    try {
+                        if (auction.applyAwards(msg) == LEADER) lastLeaderAwardTick = tick;
                     } catch (Exception ignored) {}
+                    continue;
+                }
+                if (msg.startsWith("FORMATION|")) {
+                    try {
+                        readFormation(msg, busy);
+                    } catch (Exception ignored) {}
+                    continue;
                 }
     
                 if (msg.startsWith("BORDER")) {
@@ -680,25 +896,19 @@
     
                 if (msg.startsWith("SCOUT_ENEMY_LOCATION")) {
                     try {
-                        if (busy){
-                            sendLogMessage("" + robotName + " BUSY, ignoring ENEMY message");
-                            continue;
-                        }
                         String[] parts = msg.split("\\|");
                         if (parts.length == 6) {
-                            String spotter = parts[1];
-                            double enemyX = Double.parseDouble(parts[4]);
-                            double enemyY = Double.parseDouble(parts[5]);
-                            stepsSinceEnemyUpdate = 0;
-                            nav_Lock = true;
-                            sendLogMessage(robotName + " ENEMY from " + spotter+
-                                    " (x=" + (int) enemyX + ", y=" + (int) enemyY + ")");
-    //                        applyFormationOffset(spotter, enemyX, enemyY);
-                            applyFormationOffsetAngle(enemyX,enemyY);
+                            onScoutReport(Double.parseDouble(parts[4]), Double.parseDouble(parts[5]));
                         }
                     } catch (Exception ignored) {}
                 }
             }
+            tickFormationWait();
+            if (blackboard.hasBorder(TeamBlackboard.NORTH)) northBound = blackboard.border(TeamBlackboard.NORTH);
+            if (blackboard.hasBorder(TeamBlackboard.SOUTH)) southBound = blackboard.border(TeamBlackboard.SOUTH);
+            if (blackboard.hasBorder(TeamBlackboard.WEST))  westBound  = blackboard.border(TeamBlackboard.WEST);
+            if (blackboard.hasBorder(TeamBlackboard.EAST))  eastBound  = blackboard.border(TeamBlackboard.EAST);
+            refreshWalls();
         }
         private void applyFormationOffset(String spotter, double targetX, double targetY) {
             int spotterPosition = getRolePosition(spotter);
@@ -766,83 +976,70 @@
                 consecutiveBlocks = 0;
             }
     
-            turnUsesRadarRayCheck = true;
+            targetAngle = avoidTowards(targetAngle);
+            avoidanceTurn = true;
             state = State.TURNING;
         }
     
         // TURNING behavior:
-        // - turn toward targetAngle
-        // - when aligned, ask: "is this direction still blocked by a radar obstacle ray?"
-        //   if yes -> rotate another 30° and try again
-        //   if no  -> commit 1 forward step
-        private void doTurningWithRadarRayCheck() {
+        // - turn toward targetAngle, a known number of stepTurns away
+        // - when aligned after an avoidance turn, commit forward: the histogram already
+        //   picked a free heading, there is nothing left to probe
+        private void doTurning() {
             if (!isSameDirection(myGetHeading(), targetAngle)) {
                 stepTurn(getTurnDirection(myGetHeading(), targetAngle));
                 return;
             }
-    
-            // aligned
-            if (turnUsesRadarRayCheck) {
-                if (radarBlocksHeading(targetAngle, RADAR_RADIUS)) {
-                    targetAngle = normalize(targetAngle + avoidSide * AVOID_STEP);
-                    return;
-                } else {
-                    commitForwardSteps = 3;
-                    turnUsesRadarRayCheck = false;
-                    state = afterTurnState;  // ✅ instead of MOVE
-                    return;
-                }
+
+            if (avoidanceTurn) {
+                commitForwardSteps = 3;
+                avoidanceTurn = false;
             }
-    
-            state = afterTurnState;          // ✅ instead of MOVE
+            state = afterTurnState;
         }
     
     
         // ==========================================================
-        // UTURN MODE (wall): start facing 180° away, then scan 360° in 30° steps.
-        // if front becomes clear => move + exit
+        // FREE HEADINGS: polar histogram of close bots and walls, built when a turn is decided
         // ==========================================================
-        private void enterUTurnMode() {
+        // WALL: turn straight to the free heading nearest to ours, instead of scanning 30° at a time
+        private void turnAwayFromWall() {
             escapeBackSteps = Math.max(escapeBackSteps, 1);
-    
-            // alternate scan direction to avoid corner loops
+
+            // alternate the preferred side to avoid corner loops
             uTurnSide = -uTurnSide;
-    
-            // base direction: directly away from the wall (front saw wall)
-            uTurnStartHeading = normalize(myGetHeading() + Math.PI);
-    
-            uTurnChecksLeft = (int) Math.ceil((2 * Math.PI) / AVOID_STEP);
-            targetAngle = uTurnStartHeading;
-    
+
+            double free = freeHeading(myGetHeading(), uTurnSide, true);
+            // boxed in: back up more, facing away from the wall
+            if (!histogram.isFree(free)) escapeBackSteps = Math.max(escapeBackSteps, 2);
+            targetAngle = normalize(free);
+
             consecutiveBlocks = 0;
-            turnUsesRadarRayCheck = false;
-            state = State.UTURN;
+            avoidanceTurn = true;
+            state = State.TURNING;
         }
-    
-        private void doUTurnScan() {
-            if (!isSameDirection(myGetHeading(), targetAngle)) {
-                stepTurn(getTurnDirection(myGetHeading(), targetAngle));
-                return;
-            }
-    
-            if (detectFront().getObjectType() == IFrontSensorResult.Types.NOTHING) {
-                // found a free direction
-                commitForwardSteps = 1;
-                state = afterTurnState;
-                return;
-            }
-    
-            uTurnChecksLeft--;
-            if (uTurnChecksLeft <= 0) {
-                // full scan failed: back up more and try moving logic again
-                escapeBackSteps = Math.max(escapeBackSteps, 2);
-                state = afterTurnState;
-                return;
+
+        // free heading nearest to desired; desired itself when boxed in (after backing up)
+        private double avoidTowards(double desired) {
+            double free = freeHeading(desired, avoidSide, false);
+            if (!histogram.isFree(free)) escapeBackSteps = Math.max(escapeBackSteps, ESCAPE_BACK_STEPS);
+            return normalize(free);
+        }
+
+        // borders as learned so far, the assumed arena for the others; the field is shared
+        private void refreshWalls() {
+            double west = westBound >= 0 ? westBound : 0, north = northBound >= 0 ? northBound : 0;
+            double east = eastBound >= 0 ? eastBound : FrontierPlanner.ARENA_WIDTH;
+            double south = southBound >= 0 ? southBound : FrontierPlanner.ARENA_HEIGHT;
+            if (Math.round(west) != walls.getWest() || Math.round(north) != walls.getNorth()
+                    || Math.round(east) != walls.getEast() || Math.round(south) != walls.getSouth()) {
+                walls = WallField.of(west, north, east, south);
             }
+        }
     
-            int totalSteps = (int) Math.ceil((2 * Math.PI) / AVOID_STEP);
-            int stepIndex = totalSteps - uTurnChecksLeft + 1;
-            targetAngle = normalize(uTurnStartHeading + uTurnSide * stepIndex * AVOID_STEP);
+        private double freeHeading(double desired, int side, boolean wallAhead) {
+            detectRadarInto(nearby, BOT_OBSTACLES, RADAR_RADIUS);
+            return histogram.freeHeading(nearby, myX, myY, walls, desired, side, wallAhead);
         }
     
         // ==========================================================
@@ -856,37 +1053,13 @@
             return false;
         }
     
-        private boolean radarBlocksHeading(double candidateHeading, double radius) {
-            for (IRadarResult o : detectRadar()) {
-                if (!isWantedRadarType(o.getObjectType())) continue;
-                if (o.getObjectDistance() >= radius) continue;
-    
-                // obstacle lies on this candidate ray => blocked
-                if (isSameDirectionRadar(o.getObjectDirection(), candidateHeading)) return true;
-            }
-            return false;
-        }
-    
         // pick side away from the closest obstacle inside radius (360°)
         // returns -1 (turn left) or +1 (turn right) or null if none
         private Integer chooseSideFromClosestRadarWithinRadius(double radius) {
-            IRadarResult closest = null;
-            double best = Double.POSITIVE_INFINITY;
-    
-            for (IRadarResult o : detectRadar()) {
-                if (!isWantedRadarType(o.getObjectType())) continue;
-                double d = o.getObjectDistance();
-                if (d >= radius) continue;
-    
-                if (d < best) {
-                    best = d;
-                    closest = o;
-                }
-            }
-    
-            if (closest == null) return null;
+            // nearest first
+            if (detectRadarInto(nearby, BOT_OBSTACLES, radius) == 0) return null;
     
-            double rel = normalize(closest.getObjectDirection() - myGetHeading());
+            double rel = normalize(nearby.getObjectDirection(0) - myGetHeading());
             // object on right (0..pi) => turn left (-1). object on left => turn right (+1)
             return (rel > 0 && rel < Math.PI) ? -1 : +1;
         }
@@ -899,10 +1072,6 @@
                     || (t == IRadarResult.Types.OpponentSecondaryBot);
         }
     
-        private boolean isSameDirectionRadar(double dir1, double dir2) {
-            return Math.abs(normalize(dir1) - normalize(dir2)) < RADAR_DIR_EPS;
-        }
-    
         // progressive turn: 30, 60, 90, 120...
         private double progressiveTurn(int blocks) {
             double turn = blocks * AVOID_STEP;
@@ -969,11 +1138,12 @@
                 avoidSide = (avoidSide == 0) ? 1 : avoidSide;
                 targetAngle = normalize(angleToTarget + avoidSide * (AVOID_STEP / 3));
                 afterTurnState = State.CONVERGING;
-                turnUsesRadarRayCheck = false;
+                avoidanceTurn = false;
                 state = State.TURNING;
                 return false;
             }
             // aligned: shoot
+            recordShot(currentTargetX, currentTargetY);
             fire(angleToTarget);
             return true;
         }
@@ -1036,6 +1206,10 @@
             return Math.abs(a - b) <= range;
         }
     
+        private boolean isSameDirectionRadar(double dir1, double dir2) {
+            return Math.abs(normalize(dir1) - normalize(dir2)) < RADAR_DIR_EPS;
+        }
+    
         private boolean teammateBlocksShot(double angle) {
             for (IRadarResult o : detectRadar()) {
                 if (o.getObjectType() == IRadarResult.Types.TeamMainBot
@@ -0,0 +1,247 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Small table-driven hierarchical state machine for brains.
+ *
+ * States are the constants of an enum. Every per-state piece (parent, tick handler,
+ * entry/exit action, event table) lives in an array indexed by ordinal, so a tick is
+ * a walk over a precomputed root->leaf path with no allocation and no switch.
+ *
+ * Ticking runs handlers from the outermost super-state down to the current leaf: a
+ * super-state handler that returns true consumes the tick, which is how preemption
+ * checks ("shoot if possible", "finish backing up") sit above the regular states.
+ * A transition requested by a handler also ends the tick.
+ */
+public final class StateMachine<S extends Enum<S>> {
+
+    public interface Handler {
+        boolean tick(); // true => tick consumed, inner states are not run
+    }
+
+    private static final int NONE = -1;
+
+    private final S[] states;
+    private final int n;
+    private final int eventCount;
+
+    private final int[] parent;
+    private final Handler[] tickHandlers;
+    private final Runnable[] entryActions;
+    private final Runnable[] exitActions;
+    private final int[] eventTable;   // [state * eventCount + event] -> target ordinal
+    private int[][] paths;            // root -> state, built lazily on start()
+
+    private int current = NONE;
+    private boolean transitioned = false;
+
+    // ===== METRICS =====
+    private final long[] ticksIn;       // ticks spent in (or below) each state
+    private final long[] transitions;   // [from * n + to]
+    private final long[] entries;       // times each state was entered, as a leaf or an ancestor
+    private long totalTicks = 0;
+
+    public StateMachine(Class<S> type) {
+        this(type, 0);
+    }
+
+    public StateMachine(Class<S> type, int eventCount) {
+        this.states = type.getEnumConstants();
+        this.n = states.length;
+        this.eventCount = eventCount;
+
+        this.parent = new int[n];
+        this.tickHandlers = new Handler[n];
+        this.entryActions = new Runnable[n];
+        this.exitActions = new Runnable[n];
+        this.eventTable = new int[n * Math.max(1, eventCount)];
+        this.ticksIn = new long[n];
+        this.transitions = new long[n * n];
+        this.entries = new long[n];
+
+        Arrays.fill(parent, NONE);
+        Arrays.fill(eventTable, NONE);
+    }
+
+    // =========================
+    // DEFINITION
+    // =========================
+    public StateMachine<S> parent(S child, S superState) {
+        int c = child.ordinal();
+        for (int p = superState.ordinal(); p != NONE; p = parent[p]) {
+            if (p == c) throw new IllegalArgumentException("cycle: " + child + " under " + superState);
+        }
+        parent[c] = superState.ordinal();
+        paths = null;
+        return this;
+    }
+
+    public StateMachine<S> onTick(S state, Handler handler) {
+        tickHandlers[state.ordinal()] = handler;
+        return this;
+    }
+
+    public StateMachine<S> onEntry(S state, Runnable action) {
+        entryActions[state.ordinal()] = action;
+        return this;
+    }
+
+    public StateMachine<S> onExit(S state, Runnable action) {
+        exitActions[state.ordinal()] = action;
+        return this;
+    }
+
+    /** Table entry: when {@code event} is fired in {@code from} (or a state below it), go to {@code to}. */
+    public StateMachine<S> on(S from, int event, S to) {
+        if (event < 0 || event >= eventCount) throw new IllegalArgumentException("event out of range: " + event);
+        eventTable[from.ordinal() * eventCount + event] = to.ordinal();
+        return this;
+    }
+
+    public void start(S initial) {
+        buildPaths();
+        current = NONE;
+        enter(NONE, initial.ordinal());
+        current = initial.ordinal();
+    }
+
+    // =========================
+    // RUNTIME
+    // =========================
+    public void tick() {
+        if (current == NONE) return;
+        if (paths == null) buildPaths();
+        int[] path = paths[current];
+        totalTicks++;
+        for (int i = 0; i < path.length; i++) ticksIn[path[i]]++;
+
+        transitioned = false;
+        for (int i = 0; i < path.length; i++) {
+            Handler h = tickHandlers[path[i]];
+            if (h == null) continue;
+            if (h.tick() || transitioned) return;
+        }
+    }
+
+    /** Looks the event up from the current leaf outwards; returns false if no state handles it. */
+    public boolean fire(int event) {
+        if (current == NONE || event < 0 || event >= eventCount) return false;
+        for (int s = current; s != NONE; s = parent[s]) {
+            int target = eventTable[s * eventCount + event];
+            if (target != NONE) {
+                transition(states[target]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void transition(S target) {
+        int to = target.ordinal();
+        int from = current;
+        transitioned = true;
+        if (from == NONE) {
+            enter(NONE, to);
+            current = to;
+            return;
+        }
+        transitions[from * n + to]++;
+        if (paths == null) buildPaths();
+
+        int lca = (from == to) ? parent[from] : commonAncestor(from, to);
+        for (int s = from; s != lca; s = parent[s]) {
+            Runnable a = exitActions[s];
+            if (a != null) a.run();
+        }
+        current = to;
+        enter(lca, to);
+    }
+
+    public S current() {
+        return current == NONE ? null : states[current];
+    }
+
+    public boolean isIn(S state) {
+        int o = state.ordinal();
+        for (int s = current; s != NONE; s = parent[s]) if (s == o) return true;
+        return false;
+    }
+
+    // =========================
+    // METRICS
+    // =========================
+    public long ticksIn(S state) {
+        return ticksIn[state.ordinal()];
+    }
+
+    /** Entries into state, including those through a transition to one of its children. */
+    public long entryCount(S state) {
+        return entries[state.ordinal()];
+    }
+
+    public long transitionCount(S from, S to) {
+        return transitions[from.ordinal() * n + to.ordinal()];
+    }
+
+    public long totalTicks() {
+        return totalTicks;
+    }
+
+    public void resetMetrics() {
+        Arrays.fill(ticksIn, 0);
+        Arrays.fill(transitions, 0);
+        Arrays.fill(entries, 0);
+        totalTicks = 0;
+    }
+
+    /** One-line summary for sendLogMessage: "STATE=ticks(%)/entries" for every visited state. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int s = 0; s < n; s++) {
+            if (ticksIn[s] == 0) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(states[s].name()).append('=').append(ticksIn[s])
+              .append('(').append(totalTicks == 0 ? 0 : (100 * ticksIn[s] / totalTicks)).append("%)/")
+              .append(entries[s]);
+        }
+        return sb.toString();
+    }
+
+    // =========================
+    // INTERNALS
+    // =========================
+    private void enter(int fromAncestor, int to) {
+        if (paths == null) buildPaths();
+        int[] path = paths[to];
+        int i = 0;
+        if (fromAncestor != NONE) {
+            while (path[i] != fromAncestor) i++;
+            i++;
+        }
+        for (; i < path.length; i++) {
+            entries[path[i]]++;
+            Runnable a = entryActions[path[i]];
+            if (a != null) a.run();
+        }
+    }
+
+    private int commonAncestor(int a, int b) {
+        int[] pa = paths[a], pb = paths[b];
+        int lca = NONE;
+        for (int i = 0; i < pa.length && i < pb.length && pa[i] == pb[i]; i++) lca = pa[i];
+        return lca;
+    }
+
+    private void buildPaths() {
+        paths = new int[n][];
+        for (int s = 0; s < n; s++) {
+            int depth = 0;
+            for (int p = s; p != NONE; p = parent[p]) depth++;
+            int[] path = new int[depth];
+            int i = depth - 1;
+            for (int p = s; p != NONE; p = parent[p]) path[i--] = p;
+            paths[s] = path;
+        }
+    }
+}
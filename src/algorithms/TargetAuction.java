@@ -0,0 +1,223 @@
+package algorithms;
+
+/**
+ * Enemy allocation across a team's shooters by a sealed-bid auction.
+ *
+ * Every shooter bids a cost for each enemy it can engage (BID message, only when its view
+ * changed); one auctioneer keeps the latest bid of every shooter and awards the enemies:
+ * cheapest (shooter, enemy) pair first, one shooter per enemy while some enemy has none, so
+ * shooters only double up when they outnumber the enemies they can reach. The winners go out
+ * in one AWARD message, signed by the auctioneer; a shooter whose favourite went to a cheaper
+ * bidder is awarded its next one. Enemies are matched across bids by position, within associationRadius. A bid also
+ * carries where its bidder stood, so the team learns the shooters' positions for free.
+ *
+ *   BID|bidder|bx,by|x,y,cost|x,y,cost|...   AWARD|sender|x,y|x,y|...  (one pair per bidder, -1 for none)
+ *
+ * Tables are fixed arrays of maxBidders x maxBids; solve() is O(bidders^2 x maxBids) and
+ * does not allocate.
+ */
+public final class TargetAuction {
+
+    public static final String BID = "BID|";
+    public static final String AWARD = "AWARD|";
+    private static final double NONE = -1;
+
+    private final int maxBidders, maxBids;
+    private final double radius;
+
+    // latest bid of each bidder
+    private final double[] bidX, bidY, bidCost;   // [bidder * maxBids + k]
+    private final int[] bidCount, bidStamp;
+    private final double[] bidderX, bidderY;       // where each bidder stood, NONE until it bid
+
+    // awards, one enemy position per bidder (NONE when idle)
+    private final double[] awardX, awardY;
+
+    // solve() scratch: enemies merged across bids, and the shooters on each
+    private final double[] enemyX, enemyY;
+    private final int[] shooters;
+    private final int[] enemyOf;                   // [bidder * maxBids + k] -> enemy index
+    private final boolean[] served, won;
+
+    public TargetAuction(int maxBidders, int maxBids, double associationRadius) {
+        if (maxBidders <= 0 || maxBids <= 0) throw new IllegalArgumentException("Empty auction");
+        this.maxBidders = maxBidders;
+        this.maxBids = maxBids;
+        this.radius = associationRadius;
+        bidX = new double[maxBidders * maxBids];
+        bidY = new double[maxBidders * maxBids];
+        bidCost = new double[maxBidders * maxBids];
+        bidCount = new int[maxBidders];
+        bidStamp = new int[maxBidders];
+        bidderX = new double[maxBidders];
+        bidderY = new double[maxBidders];
+        awardX = new double[maxBidders];
+        awardY = new double[maxBidders];
+        enemyX = new double[maxBidders * maxBids];
+        enemyY = new double[maxBidders * maxBids];
+        shooters = new int[maxBidders * maxBids];
+        enemyOf = new int[maxBidders * maxBids];
+        served = new boolean[maxBidders];
+        won = new boolean[maxBidders];
+        for (int b = 0; b < maxBidders; b++) {
+            awardX[b] = NONE;
+            awardY[b] = NONE;
+            bidStamp[b] = Integer.MIN_VALUE / 2;
+            bidderX[b] = NONE;
+            bidderY[b] = NONE;
+        }
+    }
+
+    // =========================
+    // BIDS
+    // =========================
+    /** Starts bidder's new bid (replacing its previous one), made at tick from (x,y). */
+    public void openBid(int bidder, int tick, double x, double y) {
+        bidCount[bidder] = 0;
+        bidStamp[bidder] = tick;
+        bidderX[bidder] = x;
+        bidderY[bidder] = y;
+    }
+
+    /** Adds one enemy to bidder's open bid; false once the bid is full. */
+    public boolean bid(int bidder, double x, double y, double cost) {
+        if (bidCount[bidder] == maxBids) return false;
+        int i = bidder * maxBids + bidCount[bidder]++;
+        bidX[i] = x;
+        bidY[i] = y;
+        bidCost[i] = cost;
+        return true;
+    }
+
+    public int getBidCount(int bidder) { return bidCount[bidder]; }
+    public int getBidStamp(int bidder) { return bidStamp[bidder]; }
+    public boolean hasBidderPosition(int bidder) { return bidderX[bidder] != NONE; }
+    public double bidderX(int bidder) { return bidderX[bidder]; }
+    public double bidderY(int bidder) { return bidderY[bidder]; }
+
+    /** BID|bidder|bx,by|x,y,cost|... for bidder's current bid. */
+    public String encodeBid(int bidder) {
+        StringBuilder sb = new StringBuilder(BID).append(bidder)
+                .append('|').append((int) bidderX[bidder]).append(',').append((int) bidderY[bidder]);
+        for (int k = 0; k < bidCount[bidder]; k++) {
+            int i = bidder * maxBids + k;
+            sb.append('|').append((int) bidX[i]).append(',').append((int) bidY[i]).append(',').append((int) bidCost[i]);
+        }
+        return sb.toString();
+    }
+
+    /** Applies a teammate's BID message received at tick. Returns the bidder. */
+    public int applyBid(String msg, int tick) {
+        String[] parts = msg.split("\\|");
+        int bidder = Integer.parseInt(parts[1]);
+        if (bidder < 0 || bidder >= maxBidders || parts.length < 3) throw new IllegalArgumentException("Bad bid " + msg);
+        String[] at = parts[2].split(",");
+        openBid(bidder, tick, Double.parseDouble(at[0]), Double.parseDouble(at[1]));
+        for (int p = 3; p < parts.length; p++) {
+            String[] f = parts[p].split(",");
+            if (!bid(bidder, Double.parseDouble(f[0]), Double.parseDouble(f[1]), Double.parseDouble(f[2]))) break;
+        }
+        return bidder;
+    }
+
+    /** Lowest bidder with a bid newer than ttl ticks, other than skip; -1 if none. */
+    public int lowestLiveBidder(int tick, int ttl, int skip) {
+        for (int b = 0; b < maxBidders; b++) {
+            if (b != skip && tick - bidStamp[b] <= ttl) return b;
+        }
+        return -1;
+    }
+
+    // =========================
+    // AWARDS
+    // =========================
+    /** Runs the auction over the bids newer than ttl ticks. True when some award changed. */
+    public boolean solve(int tick, int ttl) {
+        int enemies = 0;
+        for (int b = 0; b < maxBidders; b++) {
+            served[b] = tick - bidStamp[b] > ttl || bidCount[b] == 0;   // not bidding
+            won[b] = false;
+            for (int k = 0; k < bidCount[b] && !served[b]; k++) {
+                int i = b * maxBids + k;
+                int e = 0;
+                while (e < enemies && Math.hypot(enemyX[e] - bidX[i], enemyY[e] - bidY[i]) > radius) e++;
+                if (e == enemies) {
+                    enemyX[enemies] = bidX[i];
+                    enemyY[enemies] = bidY[i];
+                    shooters[enemies++] = 0;
+                }
+                enemyOf[i] = e;
+            }
+        }
+
+        boolean changed = false;
+        for (int round = 0; round < maxBidders; round++) {
+            int bestBidder = -1, bestEnemy = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int b = 0; b < maxBidders; b++) {
+                if (served[b]) continue;
+                boolean doubleUp = !reachesUnshot(b);
+                for (int k = 0; k < bidCount[b]; k++) {
+                    int i = b * maxBids + k;
+                    if (shooters[enemyOf[i]] > 0 && !doubleUp) continue;
+                    if (bidCost[i] < best) {
+                        best = bidCost[i];
+                        bestBidder = b;
+                        bestEnemy = enemyOf[i];
+                    }
+                }
+            }
+            if (bestBidder < 0) break;
+            served[bestBidder] = true;
+            won[bestBidder] = true;
+            shooters[bestEnemy]++;
+            changed |= award(bestBidder, enemyX[bestEnemy], enemyY[bestEnemy]);
+        }
+        for (int b = 0; b < maxBidders; b++) {
+            if (!won[b]) changed |= award(b, NONE, NONE);
+        }
+        return changed;
+    }
+
+    private boolean reachesUnshot(int b) {
+        for (int k = 0; k < bidCount[b]; k++) {
+            if (shooters[enemyOf[b * maxBids + k]] == 0) return true;
+        }
+        return false;
+    }
+
+    private boolean award(int bidder, double x, double y) {
+        if (Math.abs(awardX[bidder] - x) < radius / 2 && Math.abs(awardY[bidder] - y) < radius / 2
+                && (awardX[bidder] == NONE) == (x == NONE)) return false;
+        awardX[bidder] = x;
+        awardY[bidder] = y;
+        return true;
+    }
+
+    public boolean hasAward(int bidder) { return awardX[bidder] != NONE; }
+    public double awardX(int bidder) { return awardX[bidder]; }
+    public double awardY(int bidder) { return awardY[bidder]; }
+
+    /** AWARD|sender|x,y|x,y|... one pair per bidder, sent by auctioneer sender. */
+    public String encodeAwards(int sender) {
+        StringBuilder sb = new StringBuilder(AWARD).append(sender);
+        for (int b = 0; b < maxBidders; b++) {
+            sb.append('|').append((int) awardX[b]).append(',').append((int) awardY[b]);
+        }
+        return sb.toString();
+    }
+
+    /** Applies an auctioneer's AWARD message. Returns its sender. */
+    public int applyAwards(String msg) {
+        String[] parts = msg.split("\\|");
+        if (parts.length != maxBidders + 2) throw new IllegalArgumentException("Bad award " + msg);
+        int sender = Integer.parseInt(parts[1]);
+        if (sender < 0 || sender >= maxBidders) throw new IllegalArgumentException("Bad award " + msg);
+        for (int b = 0; b < maxBidders; b++) {
+            String[] f = parts[b + 2].split(",");
+            awardX[b] = Double.parseDouble(f[0]);
+            awardY[b] = Double.parseDouble(f[1]);
+        }
+        return sender;
+    }
+}
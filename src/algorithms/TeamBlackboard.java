@@ -0,0 +1,265 @@
+package algorithms;
+
+import java.util.ArrayList;
+
+/**
+ * Shared team view made of fixed, typed slots (borders, enemy tracks, wrecks, claimed
+ * targets). Every slot carries a version and the id of its last writer.
+ *
+ * Local writes only mark a slot dirty when the value really changed, and publish()
+ * packs just the dirty slots into a single delta message:
+ *
+ *   BB|writer|slot,version,writerId,x,y|slot,version,writerId,x,y|...
+ *
+ * with "?,?" for the coordinates of a cleared slot: known is a bit of its own, as any
+ * coordinate (-1 after an odometry error, say) is a value a slot may hold.
+ * apply() keeps an incoming slot only if (version, writer) is newer than ours, so
+ * replayed, reordered or duplicated deltas are harmless.
+ *
+ * Enemy and wreck slots are partitioned by writer: a new enemy goes into one of the
+ * reporter's own slots, so two teammates reporting different enemies on the same tick
+ * cannot pick the same free slot and overwrite each other. An enemy already tracked in a
+ * teammate's slot is updated there.
+ */
+public final class TeamBlackboard {
+
+    public static final String PREFIX = "BB|";
+
+    // ===== SLOT LAYOUT =====
+    public static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3;
+    public static final int BORDER_SLOTS = 4;
+    public static final int MAX_WRITERS = 8;    // claimed target: one slot per writer id
+    public static final int ENEMIES_PER_WRITER = 2;
+    public static final int WRECKS_PER_WRITER = 2;
+    public static final int MAX_ENEMIES = ENEMIES_PER_WRITER * MAX_WRITERS;
+    public static final int MAX_WRECKS = WRECKS_PER_WRITER * MAX_WRITERS;
+
+    private static final int ENEMY_BASE = BORDER_SLOTS;
+    private static final int WRECK_BASE = ENEMY_BASE + MAX_ENEMIES;
+    private static final int CLAIM_BASE = WRECK_BASE + MAX_WRECKS;
+    public static final int SLOTS = CLAIM_BASE + MAX_WRITERS;   // must stay <= 64 (dirty mask)
+
+    private static final String UNKNOWN = "?";
+
+    private final int me;
+    private final double minChange;
+
+    private final double[] x = new double[SLOTS];
+    private final double[] y = new double[SLOTS];
+    private final boolean[] known = new boolean[SLOTS];
+    private final int[] version = new int[SLOTS];
+    private final int[] writer = new int[SLOTS];
+    private final int[] stamp = new int[SLOTS];   // local tick of last update, never broadcast
+    private long dirty = 0L;
+    private int tick = 0;
+
+    // ===== COUNTERS =====
+    private int slotsPublished = 0;
+    private int slotsApplied = 0;
+    private int slotsIgnored = 0;
+
+    /**
+     * @param writerId  small team-unique id in [0, MAX_WRITERS)
+     * @param minChange positions moving less than this are not re-published
+     */
+    public TeamBlackboard(int writerId, double minChange) {
+        if (writerId < 0 || writerId >= MAX_WRITERS) throw new IllegalArgumentException("writerId " + writerId);
+        this.me = writerId;
+        this.minChange = minChange;
+        for (int i = 0; i < SLOTS; i++) writer[i] = -1;
+    }
+
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    // =========================
+    // BORDERS
+    // =========================
+    public void setBorder(int side, double pos) {
+        write(side, true, pos, 0, 0.5);
+    }
+
+    public boolean hasBorder(int side) {
+        return known[side];
+    }
+
+    public double border(int side) {
+        return x[side];
+    }
+
+    // =========================
+    // ENEMY TRACKS
+    // =========================
+    /**
+     * Updates the track closest to (ex,ey) within radius, whoever owns it, else our own free
+     * or stalest enemy slot. Returns the slot.
+     */
+    public int reportEnemy(double ex, double ey, double associationRadius) {
+        int slot = nearest(ENEMY_BASE, MAX_ENEMIES, ex, ey, associationRadius);
+        if (slot < 0) slot = freeOrStalest(ENEMY_BASE + me * ENEMIES_PER_WRITER, ENEMIES_PER_WRITER);
+        write(slot, true, ex, ey, minChange);
+        return slot;
+    }
+
+    public void clearEnemy(int index) {
+        write(ENEMY_BASE + index, false, 0, 0, 0.5);
+    }
+
+    public boolean hasEnemy(int index) {
+        return known[ENEMY_BASE + index];
+    }
+
+    public double enemyX(int index) { return x[ENEMY_BASE + index]; }
+    public double enemyY(int index) { return y[ENEMY_BASE + index]; }
+    public int enemyAge(int index) { return tick - stamp[ENEMY_BASE + index]; }
+
+    // =========================
+    // WRECKS (never move, so one write each)
+    // =========================
+    public void reportWreck(double wx, double wy, double associationRadius) {
+        if (nearest(WRECK_BASE, MAX_WRECKS, wx, wy, associationRadius) >= 0) return;
+        int slot = freeOrStalest(WRECK_BASE + me * WRECKS_PER_WRITER, WRECKS_PER_WRITER);
+        write(slot, true, wx, wy, 0.5);
+    }
+
+    public boolean hasWreck(int index) { return known[WRECK_BASE + index]; }
+    public double wreckX(int index) { return x[WRECK_BASE + index]; }
+    public double wreckY(int index) { return y[WRECK_BASE + index]; }
+
+    // =========================
+    // CLAIMED TARGETS
+    // =========================
+    public void claim(double tx, double ty) {
+        write(CLAIM_BASE + me, true, tx, ty, minChange);
+    }
+
+    public void releaseClaim() {
+        write(CLAIM_BASE + me, false, 0, 0, 0.5);
+    }
+
+    public boolean hasClaim(int writerId) { return known[CLAIM_BASE + writerId]; }
+    public double claimX(int writerId) { return x[CLAIM_BASE + writerId]; }
+    public double claimY(int writerId) { return y[CLAIM_BASE + writerId]; }
+
+    /** True when a teammate already claimed a target within radius of (tx,ty). */
+    public boolean claimedByOther(double tx, double ty, double radius) {
+        for (int w = 0; w < MAX_WRITERS; w++) {
+            if (w == me || !hasClaim(w)) continue;
+            if (Math.hypot(claimX(w) - tx, claimY(w) - ty) < radius) return true;
+        }
+        return false;
+    }
+
+    // =========================
+    // SYNC
+    // =========================
+    /** Delta message for all slots changed since the last call, or null when nothing changed. */
+    public String publish() {
+        if (dirty == 0L) return null;
+        StringBuilder sb = new StringBuilder(PREFIX).append(me);
+        for (int s = 0; s < SLOTS; s++) {
+            if ((dirty & (1L << s)) == 0) continue;
+            sb.append('|').append(s)
+              .append(',').append(version[s])
+              .append(',').append(writer[s]);
+            if (known[s]) sb.append(',').append((int) x[s]).append(',').append((int) y[s]);
+            else sb.append(',').append(UNKNOWN).append(',').append(UNKNOWN);
+            slotsPublished++;
+        }
+        dirty = 0L;
+        return sb.toString();
+    }
+
+    /** Applies every blackboard delta in messages; other messages are left to the caller. */
+    public void applyAll(ArrayList<String> messages) {
+        for (String m : messages) {
+            if (m.startsWith(PREFIX)) apply(m);
+        }
+    }
+
+    public void apply(String msg) {
+        if (!msg.startsWith(PREFIX)) return;
+        int i = msg.indexOf('|', PREFIX.length());
+        while (i >= 0 && i < msg.length()) {
+            int end = msg.indexOf('|', i + 1);
+            if (end < 0) end = msg.length();
+            applyEntry(msg, i + 1, end);
+            i = end;
+        }
+    }
+
+    public int slotsPublished() { return slotsPublished; }
+    public int slotsApplied() { return slotsApplied; }
+    public int slotsIgnored() { return slotsIgnored; }
+
+    // =========================
+    // INTERNALS
+    // =========================
+    private void write(int slot, boolean isKnown, double nx, double ny, double threshold) {
+        if (known[slot] == isKnown && (!isKnown || Math.hypot(nx - x[slot], ny - y[slot]) < threshold)) {
+            stamp[slot] = tick;
+            return;
+        }
+        known[slot] = isKnown;
+        x[slot] = nx;
+        y[slot] = ny;
+        version[slot]++;
+        writer[slot] = me;
+        stamp[slot] = tick;
+        dirty |= 1L << slot;
+    }
+
+    private void applyEntry(String msg, int from, int to) {
+        try {
+            int c1 = msg.indexOf(',', from);
+            int c2 = msg.indexOf(',', c1 + 1);
+            int c3 = msg.indexOf(',', c2 + 1);
+            int c4 = msg.indexOf(',', c3 + 1);
+            if (c1 < 0 || c4 < 0 || c4 >= to) return;
+
+            int slot = Integer.parseInt(msg, from, c1, 10);
+            int v = Integer.parseInt(msg, c1 + 1, c2, 10);
+            int w = Integer.parseInt(msg, c2 + 1, c3, 10);
+            if (slot < 0 || slot >= SLOTS) return;
+
+            if (v < version[slot] || (v == version[slot] && w <= writer[slot])) {
+                slotsIgnored++;
+                return;
+            }
+            boolean isKnown = !msg.startsWith(UNKNOWN, c3 + 1);
+            double nx = isKnown ? Integer.parseInt(msg, c3 + 1, c4, 10) : 0;
+            double ny = isKnown ? Integer.parseInt(msg, c4 + 1, to, 10) : 0;
+            version[slot] = v;
+            writer[slot] = w;
+            known[slot] = isKnown;
+            x[slot] = nx;
+            y[slot] = ny;
+            stamp[slot] = tick;
+            slotsApplied++;
+        } catch (NumberFormatException ignored) {}
+    }
+
+    private int nearest(int base, int count, double px, double py, double radius) {
+        int best = -1;
+        double bestD = radius;
+        for (int s = base; s < base + count; s++) {
+            if (!known[s]) continue;
+            double d = Math.hypot(x[s] - px, y[s] - py);
+            if (d < bestD) {
+                bestD = d;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private int freeOrStalest(int base, int count) {
+        int best = base;
+        for (int s = base; s < base + count; s++) {
+            if (!known[s]) return s;
+            if (stamp[s] < stamp[best]) best = s;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,45 @@
+package algorithms;
+
+import java.util.function.Consumer;
+
+/**
+ * Brain whose broadcast() goes through a {@link BroadcastLimiter}.
+ *
+ * Messages are queued while step() runs and flushed once the engine has performed the
+ * tick's action, so however often a brain calls broadcast() its teammates receive at
+ * most one message per topic per tick, subject to the limiter's interval/change policy.
+ * Without a configured limiter every message is sent as before.
+ */
+public abstract class ThrottledBrain extends SensingBrain {
+
+    private BroadcastLimiter broadcasts = new BroadcastLimiter('|', 1);
+    private final Consumer<String> deliver = super::broadcast;
+    private int brainTick = 0;
+
+    protected ThrottledBrain() { super(); }
+
+    protected void setBroadcastLimiter(BroadcastLimiter limiter) {
+        this.broadcasts = limiter;
+    }
+
+    protected BroadcastLimiter getBroadcastLimiter() {
+        return broadcasts;
+    }
+
+    /** Ticks performed by this brain so far. */
+    protected int getBrainTick() {
+        return brainTick;
+    }
+
+    @Override
+    public void broadcast(String message) {
+        broadcasts.offer(message);
+    }
+
+    @Override
+    protected void stepAction() {
+        super.stepAction();
+        broadcasts.flush(brainTick, deliver);
+        brainTick++;
+    }
+}
@@ -0,0 +1,140 @@
+package algorithms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Distance to the nearest arena wall, and its gradient, in O(1) anywhere in the arena.
+ *
+ * The field is sampled once on the nodes of a grid over the bounds (the distance transform
+ * of the arena: with no inner walls it is the distance to the closest of the four borders)
+ * and read with bilinear interpolation, so distance() and the gradient cost a few array
+ * reads and no geometry per tick. The gradient points away from the nearest wall, with unit
+ * length except along the ridges where two walls are equally close.
+ * Fields are immutable and shared: of() hands every brain in the JVM the same instance for
+ * the same (rounded) bounds, and keeps the few most recent ones.
+ */
+public final class WallField {
+
+    public static final double CELL = 20;
+    private static final int CACHED = 8;
+
+    private static final Map<String, WallField> shared = new LinkedHashMap<String, WallField>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, WallField> eldest) {
+            return size() > CACHED;
+        }
+    };
+
+    private final double west, north, east, south;
+    private final int cols, rows;
+    private final double stepX, stepY;
+    private final float[] distance;   // (cols+1) x (rows+1) nodes, row-major
+
+    /** Field for these borders, built on first use and shared afterwards. */
+    public static synchronized WallField of(double west, double north, double east, double south) {
+        double w = Math.round(west), n = Math.round(north), e = Math.round(east), s = Math.round(south);
+        String key = (long) w + "," + (long) n + "," + (long) e + "," + (long) s;
+        WallField f = shared.get(key);
+        if (f == null) {
+            f = new WallField(w, n, e, s);
+            shared.put(key, f);
+        }
+        return f;
+    }
+
+    /** Field for the assumed arena, until the borders are known. */
+    public static WallField arena() {
+        return of(0, 0, FrontierPlanner.ARENA_WIDTH, FrontierPlanner.ARENA_HEIGHT);
+    }
+
+    private WallField(double west, double north, double east, double south) {
+        if (east - west < CELL || south - north < CELL) {
+            throw new IllegalArgumentException("Bad arena bounds " + west + "," + north + "," + east + "," + south);
+        }
+        this.west = west;
+        this.north = north;
+        this.east = east;
+        this.south = south;
+        cols = (int) Math.ceil((east - west) / CELL);
+        rows = (int) Math.ceil((south - north) / CELL);
+        stepX = (east - west) / cols;
+        stepY = (south - north) / rows;
+        distance = new float[(cols + 1) * (rows + 1)];
+        for (int j = 0; j <= rows; j++) {
+            double dy = Math.min(j * stepY, south - north - j * stepY);
+            for (int i = 0; i <= cols; i++) {
+                double dx = Math.min(i * stepX, east - west - i * stepX);
+                distance[j * (cols + 1) + i] = (float) Math.min(dx, dy);
+            }
+        }
+    }
+
+    // =========================
+    // QUERIES
+    // =========================
+    /** Distance from (x,y) to the nearest wall; positions outside are clamped to the border. */
+    public double distance(double x, double y) {
+        double gx = gridX(x), gy = gridY(y);
+        int i = cell(gx, cols), j = cell(gy, rows);
+        double fx = gx - i, fy = gy - j;
+        int k = j * (cols + 1) + i;
+        double top = distance[k] + fx * (distance[k + 1] - distance[k]);
+        double bottom = distance[k + cols + 1] + fx * (distance[k + cols + 2] - distance[k + cols + 1]);
+        return top + fy * (bottom - top);
+    }
+
+    /** x component of the gradient at (x,y): where moving away from the walls goes. */
+    public double gradientX(double x, double y) {
+        double gy = gridY(y);
+        int i = cell(gridX(x), cols), j = cell(gy, rows);
+        double fy = gy - j;
+        int k = j * (cols + 1) + i;
+        return ((distance[k + 1] - distance[k]) * (1 - fy)
+                + (distance[k + cols + 2] - distance[k + cols + 1]) * fy) / stepX;
+    }
+
+    /** y component of the gradient at (x,y). */
+    public double gradientY(double x, double y) {
+        double gx = gridX(x);
+        int i = cell(gx, cols), j = cell(gridY(y), rows);
+        double fx = gx - i;
+        int k = j * (cols + 1) + i;
+        return ((distance[k + cols + 1] - distance[k]) * (1 - fx)
+                + (distance[k + cols + 2] - distance[k + 1]) * fx) / stepY;
+    }
+
+    /**
+     * heading for a bot at (x,y) going reach further, slid along a wall it would reach first:
+     * the part of it going down the gradient is dropped, none of it at far from the walls and
+     * all of it at near. Unchanged when no wall is in the way, or when it points straight at one.
+     */
+    public double steer(double heading, double reach, double x, double y, double near, double far) {
+        double d = distance(x, y);
+        if (d >= far) return heading;
+        double gx = gradientX(x, y), gy = gradientY(x, y);
+        double g2 = gx * gx + gy * gy;
+        double hx = Math.cos(heading), hy = Math.sin(heading);
+        double into = hx * gx + hy * gy;
+        if (g2 < 1e-6 || into >= 0 || reach * -into < d * Math.sqrt(g2)) return heading;
+
+        double k = Math.min(1, (far - d) / (far - near)) * into / g2;
+        double sx = hx - k * gx, sy = hy - k * gy;
+        if (sx * sx + sy * sy < 1e-6) return heading;
+        return Math.atan2(sy, sx);
+    }
+
+    public double getWest() { return west; }
+    public double getNorth() { return north; }
+    public double getEast() { return east; }
+    public double getSouth() { return south; }
+
+    // =========================
+    // GRID
+    // =========================
+    private double gridX(double x) { return Math.max(0, Math.min(cols, (x - west) / stepX)); }
+    private double gridY(double y) { return Math.max(0, Math.min(rows, (y - north) / stepY)); }
+    private static int cell(double g, int n) { return Math.min(n - 1, (int) g); }
+}
@@ -1,5 +1,6 @@
 package algorithms.old;
 
+import algorithms.MatchRandom;
 import characteristics.IFrontSensorResult;
 import characteristics.IRadarResult;
 import characteristics.Parameters;
@@ -78,7 +79,7 @@ public class RobotScript extends Brain {
         updateOdometryIfMoving();
 
         // Log position periodically (every 10 steps or so)
-        if (Math.random() < 0.1) {
+        if (MatchRandom.nextDouble() < 0.1) {
             sendLogMessage(role + " at (" + (int)myX + "," + (int)myY + ") heading " + (int)Math.toDegrees(getHeading()) + "°");
         }
 
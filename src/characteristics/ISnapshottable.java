@@ -0,0 +1,14 @@
+package characteristics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface ISnapshottable {
+  //----------------------------------------------//
+  //---OPT-IN-BRAIN-METHODS-----------------------//
+  //------used-by-supportGUI.EngineSnapshot-------//
+  //----------------------------------------------//
+  public void saveState(DataOutput out) throws IOException; //write every field step() depends on
+  public void restoreState(DataInput in) throws IOException; //read them back, in the same order, into a brain of the same class
+}
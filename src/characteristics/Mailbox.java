@@ -0,0 +1,126 @@
+package characteristics;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+public class Mailbox extends ArrayList<String> {
+  //----------------------------------------------------//
+  //---BOUNDED-BOT-MAILBOX------------------------------//
+  //------drop-oldest-once-capacity-is-reached----------//
+  //------installed-in-place-of-the-engine's-list-------//
+  //----------------------------------------------------//
+  //Messages sit in a ring of capacity slots (start, count), so dropping the oldest one is
+  //O(1). The ArrayList storage stays empty: every read goes through size() and get(), either
+  //directly or through an AbstractList view over them, so subclasses keeping their messages
+  //elsewhere (TeamLog.Reader) only override those. The engine only adds, clones and clears;
+  //other changes to the list are refused.
+  private static final long serialVersionUID = 1L;
+  private final int capacity;
+  private final String[] ring;
+  private int start, count;
+  private long dropped;
+  private final List<String> view = new AbstractList<String>() {
+    public String get(int i) { return Mailbox.this.get(i); }
+    public int size() { return Mailbox.this.size(); }
+  };
+
+  public Mailbox(int capacity) {
+    this(capacity,true);
+  }
+  //without a ring of its own, for subclasses that keep the messages elsewhere
+  Mailbox(int capacity, boolean ring) {
+    super(0);
+    if (capacity<=0) throw new IllegalArgumentException("Mailbox capacity must be positive");
+    this.capacity=capacity;
+    this.ring=ring?new String[capacity]:null;
+  }
+
+  public int getCapacity() { return capacity; }
+  public long getDropped() { return dropped; } //messages lost to overflow since creation
+
+  public boolean add(String message) {
+    if (count==capacity) { //full: the oldest message goes
+      ring[start]=null;
+      start=(start+1)%capacity;
+      count--;
+      dropped++;
+    }
+    ring[(start+count)%capacity]=message;
+    count++;
+    return true;
+  }
+  public boolean addAll(Collection<? extends String> messages) {
+    for (String m : messages) add(m);
+    return !messages.isEmpty();
+  }
+  public int size() { return count; }
+  public boolean isEmpty() { return size()==0; }
+  public String get(int i) {
+    if (i<0 || i>=count) throw new IndexOutOfBoundsException("Index "+i+", size "+count);
+    return ring[(start+i)%capacity];
+  }
+  public void clear() {
+    for (int i=0;i<count;i++) ring[(start+i)%capacity]=null;
+    start=0;
+    count=0;
+  }
+
+  /** Moves every message into out (cleared first), oldest first; returns how many. */
+  public int drainTo(ArrayList<String> out) {
+    out.clear();
+    int n = size();
+    for (int i=0;i<n;i++) out.add(get(i));
+    clear();
+    return n;
+  }
+  /** Replace the content, e.g. when an engine snapshot is restored. */
+  public void restore(List<String> pending) {
+    clear();
+    for (String m : pending) add(m);
+  }
+  /** What the engine's fetchAllMessages() hands out: a plain copy. */
+  public Object clone() { return new ArrayList<String>(view); }
+
+  //---READS, THROUGH size() AND get()---//
+  public boolean contains(Object o) { return view.contains(o); }
+  public int indexOf(Object o) { return view.indexOf(o); }
+  public int lastIndexOf(Object o) { return view.lastIndexOf(o); }
+  public Object[] toArray() { return view.toArray(); }
+  public <T> T[] toArray(T[] a) { return view.toArray(a); }
+  public Iterator<String> iterator() { return view.iterator(); }
+  public ListIterator<String> listIterator() { return view.listIterator(); }
+  public ListIterator<String> listIterator(int i) { return view.listIterator(i); }
+  public List<String> subList(int from, int to) { return view.subList(from,to); }
+  public Spliterator<String> spliterator() { return view.spliterator(); } //and so stream()
+  public void forEach(Consumer<? super String> action) {
+    int n = size();
+    for (int i=0;i<n;i++) action.accept(get(i));
+  }
+  public boolean equals(Object o) { return o==this || view.equals(o); }
+  public int hashCode() { return view.hashCode(); }
+
+  //---REFUSED CHANGES---//
+  public String set(int i, String message) { throw refused(); }
+  public void add(int i, String message) { throw refused(); }
+  public boolean addAll(int i, Collection<? extends String> messages) { throw refused(); }
+  public String remove(int i) { throw refused(); }
+  public boolean remove(Object o) { throw refused(); }
+  public boolean removeAll(Collection<?> c) { throw refused(); }
+  public boolean retainAll(Collection<?> c) { throw refused(); }
+  public boolean removeIf(Predicate<? super String> filter) { throw refused(); }
+  public void replaceAll(UnaryOperator<String> operator) { throw refused(); }
+  public void sort(Comparator<? super String> c) { throw refused(); }
+  protected void removeRange(int from, int to) { throw refused(); }
+  private static UnsupportedOperationException refused() {
+    return new UnsupportedOperationException("A mailbox is only appended to and cleared");
+  }
+}
@@ -0,0 +1,75 @@
+package characteristics;
+
+import java.util.Arrays;
+
+public class RadarBuffer {
+  //----------------------------------------------------//
+  //---REUSABLE-RADAR-RESULTS---------------------------//
+  //------one-parallel-array-entry-per-observed-object--//
+  //------filled-by-algorithms.SensingBrain-------------//
+  //----------------------------------------------------//
+  private static final IRadarResult.Types[] TYPES = IRadarResult.Types.values();
+  public static final int ALL = ~0;
+  private int size;
+  private int[] types; //IRadarResult.Types ordinals
+  private double[] directions, distances, radii;
+
+  /** Type mask for the filtered radar queries: one bit per IRadarResult.Types ordinal. */
+  public static int mask(IRadarResult.Types... types) {
+    int m = 0;
+    for (IRadarResult.Types t : types) m |= 1<<t.ordinal();
+    return m;
+  }
+  public static boolean matches(int mask, int typeOrdinal) { return (mask&(1<<typeOrdinal))!=0; }
+
+  public RadarBuffer() { this(16); }
+  public RadarBuffer(int capacity) {
+    types = new int[capacity];
+    directions = new double[capacity];
+    distances = new double[capacity];
+    radii = new double[capacity];
+  }
+
+  public int size() { return size; }
+  public IRadarResult.Types getObjectType(int i) { return TYPES[types[i]]; }
+  public int getObjectTypeOrdinal(int i) { return types[i]; }
+  public double getObjectDirection(int i) { return directions[i]; } //same conventions as IRadarResult
+  public double getObjectDistance(int i) { return distances[i]; }
+  public double getObjectRadius(int i) { return radii[i]; }
+
+  public void clear() { size=0; }
+  public void add(int typeOrdinal, double direction, double distance, double radius) {
+    if (size==types.length) grow();
+    types[size]=typeOrdinal;
+    directions[size]=direction;
+    distances[size]=distance;
+    radii[size]=radius;
+    size++;
+  }
+  /** Stable insertion sort, nearest first; radar results are a handful of entries. */
+  public void sortByDistance() {
+    for (int i=1;i<size;i++) {
+      int t=types[i];
+      double dir=directions[i], dist=distances[i], r=radii[i];
+      int j=i-1;
+      while (j>=0 && distances[j]>dist) {
+        types[j+1]=types[j];
+        directions[j+1]=directions[j];
+        distances[j+1]=distances[j];
+        radii[j+1]=radii[j];
+        j--;
+      }
+      types[j+1]=t;
+      directions[j+1]=dir;
+      distances[j+1]=dist;
+      radii[j+1]=r;
+    }
+  }
+  private void grow() {
+    int capacity = Math.max(16,2*types.length);
+    types = Arrays.copyOf(types,capacity);
+    directions = Arrays.copyOf(directions,capacity);
+    distances = Arrays.copyOf(distances,capacity);
+    radii = Arrays.copyOf(radii,capacity);
+  }
+}
@@ -0,0 +1,112 @@
+package characteristics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TeamLog {
+  //----------------------------------------------------//
+  //---SHARED-BROADCAST-LOG-OF-ONE-TEAM-----------------//
+  //------one-append-per-broadcast----------------------//
+  //------one-read-cursor-per-teammate------------------//
+  //----------------------------------------------------//
+  //The engine's broadcast hands the message to every teammate's mailbox in list order, dead
+  //ones included; the first teammate's Reader appends it, the others only see it through
+  //their cursor. Readers must thus be installed in the engine's list order, member 0 first
+  //(HeadlessRunner.installMailboxes); a Reader receiving a message member 0 has not appended
+  //yet means they were not, and throws IllegalStateException. Entries
+  //are reclaimed once every live cursor is past them (the watermark); a cursor lagging by
+  //capacity entries loses the oldest ones, as a full Mailbox would. A muted teammate (a
+  //wreck) reads nothing and holds nothing back.
+  private final String[] ring;
+  private final long[] cursors, dropped, received;
+  private final boolean[] muted;
+  private final ArrayList<List<String>> restoring = new ArrayList<List<String>>();
+  private long head, watermark;
+
+  public TeamLog(int capacity, int members) {
+    if (capacity<=0 || members<=0) throw new IllegalArgumentException("TeamLog needs a positive capacity and team");
+    ring = new String[capacity];
+    cursors = new long[members];
+    dropped = new long[members];
+    received = new long[members];
+    muted = new boolean[members];
+  }
+  public Reader reader(int member) { return new Reader(member); }
+
+  public int getCapacity() { return ring.length; }
+  public long getAppended() { return head; } //messages broadcast so far
+  public int getRetained() { return (int)(head-watermark); } //entries not yet read by every live teammate
+  public void mute(int member) {
+    muted[member]=true;
+    reclaim();
+  }
+  public boolean isMuted(int member) { return muted[member]; }
+
+  private void append(String message) {
+    if (head-watermark==ring.length) { //full: the laggards lose their oldest entry
+      for (int m=0;m<cursors.length;m++)
+        if (!muted[m] && cursors[m]==watermark) { cursors[m]++; dropped[m]++; }
+      watermark++;
+    }
+    ring[(int)(head%ring.length)]=message;
+    head++;
+  }
+  private void reclaim() {
+    long low = head;
+    for (int m=0;m<cursors.length;m++) if (!muted[m]) low=Math.min(low,cursors[m]);
+    for (long i=watermark;i<low;i++) ring[(int)(i%ring.length)]=null;
+    watermark=low;
+  }
+  private String at(long index) { return ring[(int)(index%ring.length)]; }
+  //every teammate restores in turn; every pending list is a suffix of the longest one
+  private void restore(int member, List<String> pending) {
+    while (restoring.size()<cursors.length) restoring.add(null);
+    restoring.set(member,new ArrayList<String>(pending));
+    if (restoring.contains(null)) return;
+    List<String> longest = new ArrayList<String>();
+    for (List<String> p : restoring) if (p.size()>longest.size()) longest=p;
+    int keep = Math.min(longest.size(),ring.length);
+    Arrays.fill(ring,null);
+    head = keep;
+    watermark = 0;
+    for (int i=0;i<keep;i++) ring[i]=longest.get(longest.size()-keep+i);
+    for (int m=0;m<cursors.length;m++) cursors[m]=head-Math.min(keep,restoring.get(m).size());
+    Arrays.fill(received,head);
+    restoring.clear();
+    reclaim();
+  }
+
+  //Mailbox reads everything else (contains, iterators, stream, equals...) through size() and get()
+  public class Reader extends Mailbox {
+    private static final long serialVersionUID = 1L;
+    private final int member;
+
+    private Reader(int member) {
+      super(ring.length,false);
+      this.member=member;
+    }
+    public TeamLog getLog() { return TeamLog.this; }
+    public int getMember() { return member; }
+    private long from() { return muted[member]?head:cursors[member]; }
+
+    public boolean add(String message) {
+      if (member==0) append(message);
+      else if (++received[member]>head)
+        throw new IllegalStateException("Teammate "+member+" got a broadcast before teammate 0: readers not in engine order");
+      return true;
+    }
+    public int size() { return (int)(head-from()); }
+    public boolean isEmpty() { return head==from(); }
+    public String get(int i) {
+      if (i<0 || i>=size()) throw new IndexOutOfBoundsException("Index "+i+", size "+size());
+      return at(from()+i);
+    }
+    public void clear() {
+      cursors[member]=head;
+      reclaim();
+    }
+    public long getDropped() { return dropped[member]; }
+    public void restore(List<String> pending) { TeamLog.this.restore(member,pending); }
+  }
+}
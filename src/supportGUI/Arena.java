@@ -0,0 +1,119 @@
+package supportGUI;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+import characteristics.Parameters;
+import robotsimulator.Bot;
+import robotsimulator.Brain;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Team sizes other than the engine's hard-coded 3 main + 2 secondary bots.
+ *
+ * SimulatorEngine.init always builds its ten bots; populate() then replaces the engine's bot
+ * list with the configured numbers, built from the per-role Parameters, with brains from
+ * BrainFactory and generated start positions: each role stands in columns of bots centred
+ * on the arena's mid-height, the first one at the role's Parameters init x, further columns
+ * towards the centre, secondaries behind the mains' last column. Bots keep the engine order
+ * (A mains, B mains, A secondaries, B secondaries).
+ * The GUI's reload rebuilds the standard ten bots; use the headless runner or FastViewer.
+ * Usage: Arena ticks size [size ...] — stress run with size mains and size/2 secondaries per team.
+ */
+public class Arena {
+  //---PARAMETERS---//
+  public static final int MAINS = 3, SECONDARIES = 2;
+  private static final double GAP = 20, MARGIN = 100;
+
+  //---REFLECTION---//
+  private static final Field ENGINE_BOTS, ENGINE_AMAIN1, ENGINE_BMAIN1;
+  private static final Method BOT_BIND;
+  static {
+    try {
+      ENGINE_BOTS = SimulatorEngine.class.getDeclaredField("bots");
+      ENGINE_AMAIN1 = SimulatorEngine.class.getDeclaredField("aMain1");
+      ENGINE_BMAIN1 = SimulatorEngine.class.getDeclaredField("bMain1");
+      BOT_BIND = Bot.class.getDeclaredMethod("bind",SimulatorEngine.class);
+      ENGINE_BOTS.setAccessible(true);
+      ENGINE_AMAIN1.setAccessible(true);
+      ENGINE_BMAIN1.setAccessible(true);
+      BOT_BIND.setAccessible(true);
+    } catch (NoSuchFieldException|NoSuchMethodException e) {
+      throw new IllegalStateException("Unexpected simulator.jar", e);
+    }
+  }
+
+  //---CONSTRUCTORS---//
+  private Arena(){}
+
+  //---POPULATE---//
+  /** Replace the engine's bots with config's team sizes; no-op for the standard sizes. */
+  @SuppressWarnings("unchecked")
+  public static void populate(SimulatorEngine engine, MatchConfig config) {
+    if (config.isStandardSize()) return;
+    try {
+      ArrayList<Bot> bots = (ArrayList<Bot>)ENGINE_BOTS.get(engine);
+      int teamA = MatchResult.ENGINE_TEAM_A, teamB = MatchResult.ENGINE_TEAM_B;
+      int width = engine.getWorldWidth(), height = engine.getWorldHeight();
+      ArrayList<Bot> fresh = new ArrayList<Bot>();
+
+      double aEnd = place(fresh,config.getTeamAMains(),config.getTeamAMain(),teamA,true,
+                          Parameters.teamAMainBot1InitX,Parameters.teamAMainBotRadius,Parameters.teamAMainBotFrontalDetectionRange,
+                          Parameters.teamAMainBotSpeed,Parameters.teamAMainBotStepTurnAngle,Parameters.teamAMainBotHealth,Parameters.EAST,height);
+      double bEnd = place(fresh,config.getTeamBMains(),config.getTeamBMain(),teamB,true,
+                          Parameters.teamBMainBot1InitX,Parameters.teamBMainBotRadius,Parameters.teamBMainBotFrontalDetectionRange,
+                          Parameters.teamBMainBotSpeed,Parameters.teamBMainBotStepTurnAngle,Parameters.teamBMainBotHealth,Parameters.WEST,height);
+      aEnd = place(fresh,config.getTeamASecondaries(),config.getTeamASecondary(),teamA,false,
+                   Math.max(Parameters.teamASecondaryBot1InitX,aEnd),Parameters.teamASecondaryBotRadius,Parameters.teamASecondaryBotFrontalDetectionRange,
+                   Parameters.teamASecondaryBotSpeed,Parameters.teamASecondaryBotStepTurnAngle,Parameters.teamASecondaryBotHealth,Parameters.EAST,height);
+      bEnd = place(fresh,config.getTeamBSecondaries(),config.getTeamBSecondary(),teamB,false,
+                   Math.min(Parameters.teamBSecondaryBot1InitX,bEnd),Parameters.teamBSecondaryBotRadius,Parameters.teamBSecondaryBotFrontalDetectionRange,
+                   Parameters.teamBSecondaryBotSpeed,Parameters.teamBSecondaryBotStepTurnAngle,Parameters.teamBSecondaryBotHealth,Parameters.WEST,height);
+      for (Bot b : fresh)
+        if ((b.getTeam()==teamA) != (b.getX()<width/2.0))
+          throw new IllegalArgumentException("Teams of "+config+" do not fit in a "+width+"x"+height+" arena");
+
+      bots.clear();
+      bots.addAll(fresh);
+      for (Bot b : fresh) BOT_BIND.invoke(b,engine);
+      if (config.getTeamAMains()>0) ENGINE_AMAIN1.set(engine,fresh.get(0));
+      if (config.getTeamBMains()>0) ENGINE_BMAIN1.set(engine,fresh.get(config.getTeamAMains()));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot populate engine", e);
+    }
+  }
+  //returns the x of the next free column, beyond the ones used
+  private static double place(ArrayList<Bot> out, int n, String brain, int team, boolean rocket, double x0,
+                              double radius, double range, double speed, double turn, double health, double heading, int height) {
+    double spacing = 2*radius+GAP;
+    double direction = heading==Parameters.EAST?1:-1;
+    int perColumn = Math.max(1,(int)((height-2*MARGIN)/spacing));
+    int columns = (n+perColumn-1)/perColumn;
+    for (int k=0;k<n;k++) {
+      int column = k/perColumn, row = k%perColumn;
+      int inColumn = Math.min(perColumn,n-column*perColumn);
+      double x = x0+direction*column*spacing;
+      double y = height/2.0+(row-(inColumn-1)/2.0)*spacing;
+      out.add(new Bot(radius,range,speed,turn,x,y,heading,health,rocket,(Brain)BrainFactory.instantiate(brain),team));
+    }
+    return x0+direction*columns*spacing;
+  }
+
+  //---MAIN---//
+  public static void main(String[] args) {
+    int ticks = args.length>0 ? Integer.parseInt(args[0]) : 500;
+    MatchConfig base = MatchConfig.current();
+    for (int i=1;i<Math.max(2,args.length);i++) {
+      int size = args.length>i ? Integer.parseInt(args[i]) : 3;
+      MatchConfig.use(base.withTeamSizes(size,size/2,size,size/2));
+      SimulatorEngine engine = HeadlessRunner.newEngine();
+      HeadlessRunner.activate(engine);
+      long start = System.nanoTime();
+      HeadlessRunner.run(engine,ticks);
+      long elapsed = System.nanoTime()-start;
+      System.out.println(engine.getBots().size()+" bots: "+String.format("%.3f",elapsed/1e6/ticks)+" ms/tick");
+    }
+    MatchConfig.use(base);
+  }
+}
@@ -0,0 +1,140 @@
+package supportGUI;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import characteristics.IBrain;
+import robotsimulator.Brain;
+
+/**
+ * Registry of brain constructors, resolved once per class name.
+ *
+ * The first lookup of a name checks that it is a concrete public robotsimulator.Brain with a
+ * public no-argument constructor and turns that constructor into a Supplier (a generated
+ * lambda, or a MethodHandle call when the class comes from another class loader, such as
+ * BrainReloader's); later instantiations are a plain constructor call. Errors are reported the way
+ * HardCodedParameters.instantiate does, as IllegalStateException.
+ * A thread may resolve brains from its own loader (BrainIsolation's per-match ones), each
+ * such loader having its own registry. A BrainReloader.BrainClassLoader holds its registry
+ * itself: the suppliers reference its classes, so a registry kept here would keep every
+ * released loader alive.
+ */
+public class BrainFactory {
+  //---VARIABLES---//
+  private static final ConcurrentHashMap<String,Supplier<IBrain>> suppliers = new ConcurrentHashMap<String,Supplier<IBrain>>();
+  private static volatile ClassLoader loader = BrainFactory.class.getClassLoader();
+  private static final ThreadLocal<ClassLoader> threadLoader = new ThreadLocal<ClassLoader>();
+  private static final Map<ClassLoader,ConcurrentHashMap<String,Supplier<IBrain>>> scoped =
+      Collections.synchronizedMap(new WeakHashMap<ClassLoader,ConcurrentHashMap<String,Supplier<IBrain>>>());
+
+  //---CONSTRUCTORS---//
+  private BrainFactory(){}
+
+  //---FACTORY---//
+  public static IBrain instantiate(String className) {
+    return supplier(className).get();
+  }
+  public static Supplier<IBrain> supplier(String className) {
+    ClassLoader l = threadLoader.get();
+    ConcurrentHashMap<String,Supplier<IBrain>> registry = l==null?suppliers:registry(l);
+    Supplier<IBrain> s = registry.get(className);
+    if (s==null) {
+      s = resolve(className,l==null?loader:l);
+      Supplier<IBrain> previous = registry.putIfAbsent(className,s);
+      if (previous!=null) s=previous;
+    }
+    return s;
+  }
+  /** Resolve and validate brain classes ahead of the first match, without instantiating them. */
+  public static void preload(String... classNames) {
+    for (String name : classNames) supplier(name);
+  }
+  public static void preload(MatchConfig config) {
+    preload(config.getTeamAMain(),config.getTeamASecondary(),config.getTeamBMain(),config.getTeamBSecondary());
+  }
+  /** Forget resolved classes, e.g. after brain classes were reloaded. */
+  public static void clear() {
+    suppliers.clear();
+    scoped.clear();
+  }
+  /** Loader brain classes are resolved from from now on; clears the registry. */
+  public static void setClassLoader(ClassLoader l) {
+    loader = l;
+    clear();
+  }
+  public static ClassLoader getClassLoader() { return loader; }
+  /**
+   * Resolve brains on the calling thread from the global loader as it is now, so that a reload
+   * while a team is being built cannot give its bots classes from two loaders. Returns the
+   * thread's previous loader, to give back to useOnThisThread when the build is done.
+   */
+  public static ClassLoader pinOnThisThread() {
+    ClassLoader previous = threadLoader.get();
+    if (previous==null) threadLoader.set(loader);
+    return previous;
+  }
+  /** Loader brain classes are resolved from on the calling thread only; null to use the global one. */
+  public static void useOnThisThread(ClassLoader l) {
+    if (l==null) threadLoader.remove();
+    else threadLoader.set(l);
+  }
+  private static ConcurrentHashMap<String,Supplier<IBrain>> registry(ClassLoader l) {
+    if (l instanceof BrainReloader.BrainClassLoader) return ((BrainReloader.BrainClassLoader)l).brains;
+    synchronized (scoped) {
+      ConcurrentHashMap<String,Supplier<IBrain>> r = scoped.get(l);
+      if (r==null) {
+        r = new ConcurrentHashMap<String,Supplier<IBrain>>();
+        scoped.put(l,r);
+      }
+      return r;
+    }
+  }
+
+  //---RESOLUTION---//
+  @SuppressWarnings("unchecked")
+  private static Supplier<IBrain> resolve(String className, ClassLoader loader) {
+    Class<?> c;
+    try {
+      c = Class.forName(className,true,loader);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+    if (!Brain.class.isAssignableFrom(c) || Modifier.isAbstract(c.getModifiers()) || !Modifier.isPublic(c.getModifiers()))
+      throw new IllegalStateException(className+" is not a concrete public robotsimulator.Brain");
+    MethodHandle constructor;
+    try {
+      constructor = MethodHandles.publicLookup().findConstructor(c,MethodType.methodType(void.class));
+    } catch (NoSuchMethodException|IllegalAccessException e) {
+      throw new IllegalStateException(className+" has no public no-argument constructor", e);
+    }
+    //a generated lambda names the class symbolically, i.e. as seen from this class's loader
+    if (c.getClassLoader()==BrainFactory.class.getClassLoader()) {
+      try {
+        CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(),"get",MethodType.methodType(Supplier.class),
+                                                      MethodType.methodType(Object.class),constructor,MethodType.methodType(c));
+        return (Supplier<IBrain>)site.getTarget().invoke();
+      } catch (Throwable e) {
+        //fall back to the method handle
+      }
+    }
+    final MethodHandle handle = constructor.asType(MethodType.methodType(IBrain.class));
+    return () -> {
+      try {
+        return (IBrain)handle.invokeExact();
+      } catch (RuntimeException|Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    };
+  }
+}
@@ -0,0 +1,79 @@
+package supportGUI;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import algorithms.MatchRandom;
+
+/**
+ * Per-match class loaders for the algorithms package, so that brains' static fields are
+ * not shared by matches running at the same time in one JVM.
+ *
+ * A match acquires a BrainReloader.BrainClassLoader over the brain classes (by default where
+ * algorithms.MatchRandom itself was loaded from) and gives it back when it ends. Loaders are
+ * pooled per pairing (the four brain class names), so the classes of a pairing are loaded
+ * and linked once per concurrently running match rather than once per match; a loader is
+ * only ever used by one match at a time. Statics thus do not cross between concurrent
+ * matches, but do carry over to the next match of the same pairing on that loader, as they
+ * would in a JVM playing them one after the other.
+ * Nothing is shared with the parent, not even MatchRandom: seed() seeds the loader's own.
+ */
+public class BrainIsolation {
+  //---PARAMETERS---//
+  private static final String[] SHARED = {};
+
+  //---VARIABLES---//
+  private final URL classes;
+  private final ClassLoader parent;
+  private final HashMap<String,ArrayDeque<ClassLoader>> idle = new HashMap<String,ArrayDeque<ClassLoader>>();
+  private int created;
+
+  //---CONSTRUCTORS---//
+  public BrainIsolation(){
+    this(MatchRandom.class.getProtectionDomain().getCodeSource().getLocation());
+  }
+  public BrainIsolation(URL classes){
+    this.classes=classes;
+    this.parent=BrainIsolation.class.getClassLoader();
+  }
+
+  //---LOADERS---//
+  /** An idle loader of config's pairing, or a new one; give it back with release(). */
+  public synchronized ClassLoader acquire(MatchConfig config) {
+    ArrayDeque<ClassLoader> pool = idle.get(key(config));
+    if (pool!=null && !pool.isEmpty()) return pool.pop();
+    created++;
+    return new BrainReloader.BrainClassLoader(classes,parent,SHARED);
+  }
+  public synchronized void release(MatchConfig config, ClassLoader loader) {
+    ArrayDeque<ClassLoader> pool = idle.get(key(config));
+    if (pool==null) {
+      pool = new ArrayDeque<ClassLoader>();
+      idle.put(key(config),pool);
+    }
+    pool.push(loader);
+  }
+  /** Drop the idle loaders, e.g. after the brain classes were recompiled. */
+  public synchronized void clear() { idle.clear(); }
+  public synchronized int getCreated() { return created; }
+  private static String key(MatchConfig config) {
+    return config.getTeamAKey()+"|"+config.getTeamBKey();
+  }
+
+  /** Seed the MatchRandom brains from this loader see (the parent's one for null). */
+  public static void seed(ClassLoader loader, long seed) {
+    if (loader==null) {
+      MatchRandom.seed(seed);
+      return;
+    }
+    try {
+      Class.forName(MatchRandom.class.getName(),true,loader).getMethod("seed",long.class).invoke(null,seed);
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException(e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot seed brains of "+loader, e);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package supportGUI;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import characteristics.IBrain;
+
+/**
+ * Reloads the algorithms package from a compiled class directory without restarting the JVM.
+ *
+ * Brains are loaded child-first by a fresh BrainClassLoader each time the .class files under
+ * classDir/algorithms change, and handed to BrainFactory; the engine, GUI and characteristics
+ * classes stay in the parent loader, warm. The swap only affects brains created afterwards,
+ * i.e. from the next match (or Viewer reload) on; an engine being built keeps the loader it
+ * started with (BrainFactory.pinOnThisThread).
+ * Usage: BrainReloader classDir — starts the Viewer with a watcher on classDir
+ * (e.g. beans), then recompile only src/algorithms into it.
+ */
+public class BrainReloader {
+  //---PARAMETERS---//
+  private static final String PACKAGE = "algorithms.";
+  //loaded once, by the parent: the harness seeds MatchRandom for the brains
+  private static final String[] SHARED = { "algorithms.MatchRandom" };
+  private static final long WATCHPERIOD = 500; //ms
+
+  //---CLASSLOADER---//
+  static class BrainClassLoader extends URLClassLoader {
+    private final String[] shared;
+    //BrainFactory's constructors for this loader's brains, collected along with it
+    final ConcurrentHashMap<String,Supplier<IBrain>> brains = new ConcurrentHashMap<String,Supplier<IBrain>>();
+    BrainClassLoader(URL classDir, ClassLoader parent){
+      this(classDir,parent,SHARED);
+    }
+    BrainClassLoader(URL classDir, ClassLoader parent, String[] shared){
+      super(new URL[]{classDir},parent);
+      this.shared=shared;
+    }
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(PACKAGE) || Arrays.asList(shared).contains(name)) return super.loadClass(name,resolve);
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> c = findLoadedClass(name);
+        if (c==null) {
+          try {
+            c = findClass(name);
+          } catch (ClassNotFoundException e) {
+            return super.loadClass(name,resolve);
+          }
+        }
+        if (resolve) resolveClass(c);
+        return c;
+      }
+    }
+  }
+
+  //---VARIABLES---//
+  private final File classDir;
+  private final ClassLoader parent;
+  private long stamp;
+  private int generation;
+  private Thread watcher;
+
+  //---CONSTRUCTORS---//
+  public BrainReloader(File classDir){
+    this.classDir=classDir;
+    this.parent=BrainReloader.class.getClassLoader();
+    this.stamp=Long.MIN_VALUE;
+  }
+
+  //---RELOAD---//
+  /** Swap in a new loader if any brain class changed since the last call; true if swapped. */
+  public synchronized boolean reloadIfChanged() {
+    long s = stamp(new File(classDir,"algorithms"));
+    if (s==stamp) return false;
+    stamp=s;
+    try {
+      BrainFactory.setClassLoader(new BrainClassLoader(classDir.toURI().toURL(),parent));
+    } catch (MalformedURLException e) {
+      throw new IllegalStateException(e);
+    }
+    generation++;
+    return true;
+  }
+  public synchronized int getGeneration() { return generation; }
+  /** Poll for changes in a daemon thread. */
+  public synchronized void watch() {
+    if (watcher!=null) return;
+    watcher = new Thread(() -> {
+      while (true) {
+        try {
+          Thread.sleep(WATCHPERIOD);
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (reloadIfChanged()) System.out.println("Brains reloaded from "+classDir+" (generation "+getGeneration()+")");
+      }
+    },"brain-reloader");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+  public synchronized void stop() {
+    if (watcher!=null) watcher.interrupt();
+    watcher=null;
+  }
+  //latest modification time and number of class files; a half-written compile shows up as a later change
+  private static long stamp(File dir) {
+    long[] acc = new long[2];
+    scan(dir,acc);
+    return acc[0]*31+acc[1];
+  }
+  private static void scan(File dir, long[] acc) {
+    File[] files = dir.listFiles();
+    if (files==null) return;
+    for (File f : files) {
+      if (f.isDirectory()) scan(f,acc);
+      else if (f.getName().endsWith(".class")) { acc[0]=Math.max(acc[0],f.lastModified()); acc[1]++; }
+    }
+  }
+
+  //---MAIN---//
+  public static void main(String[] args) {
+    BrainReloader reloader = new BrainReloader(new File(args.length>0?args[0]:"beans"));
+    reloader.reloadIfChanged();
+    reloader.watch();
+    Viewer.main(args.length>1?Arrays.copyOfRange(args,1,args.length):new String[0]);
+  }
+}
@@ -0,0 +1,100 @@
+package supportGUI;
+
+import java.util.ArrayList;
+
+import robotsimulator.Bot;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * When a headless match may stop before its tick cap.
+ *
+ * A match always ends when a team is wiped out or at MatchConfig.getMaxTicks(), where
+ * MatchResult breaks the tie on remaining health. Optionally it also ends once no damage
+ * was dealt for quietTicks ticks (counted from the start or from the last hit), or once the
+ * world (Lockstep.stateHash) has repeated with the same period for two whole periods and at
+ * least cycleTicks ticks. Brains hold state the hash cannot see (CampFire sits still for
+ * some 770 ticks before its first shot), so a cycle is a hint rather than a proof and
+ * cycleTicks should be long; a world that repeats cannot be taking damage, so cycleTicks is
+ * only worth setting below quietTicks.
+ * An EndCondition is immutable; watch() gives the per-match Monitor.
+ */
+public class EndCondition {
+  //---PARAMETERS---//
+  public static enum Reason { WIPEOUT, QUIET, CYCLE, TIMEOUT }
+  private static final int WINDOW = 256; //longest cycle period detected, in ticks
+  public static final EndCondition DEFAULT = new EndCondition(0,0);
+
+  //---VARIABLES---//
+  private final int quietTicks;
+  private final int cycleTicks;
+
+  //---CONSTRUCTORS---//
+  private EndCondition(int quietTicks, int cycleTicks){
+    this.quietTicks=quietTicks;
+    this.cycleTicks=cycleTicks;
+  }
+  /** Also end after ticks without damage; 0 disables. */
+  public EndCondition withQuietTicks(int ticks) {
+    if (ticks<0) throw new IllegalArgumentException("Negative quiet ticks");
+    return new EndCondition(ticks,cycleTicks);
+  }
+  /** Also end once the world repeated for ticks (and two periods); 0 disables. */
+  public EndCondition withCycleTicks(int ticks) {
+    if (ticks<0) throw new IllegalArgumentException("Negative cycle ticks");
+    return new EndCondition(quietTicks,ticks);
+  }
+
+  //---GET/SETTERS---//
+  public int getQuietTicks() { return quietTicks; }
+  public int getCycleTicks() { return cycleTicks; }
+  public Monitor watch(SimulatorEngine engine, int maxTicks) { return new Monitor(engine,maxTicks); }
+  public String toString() {
+    return "end on wipeout"+(quietTicks>0?", "+quietTicks+" quiet ticks":"")+(cycleTicks>0?", "+cycleTicks+" cycle ticks":"");
+  }
+
+  //---MONITOR---//
+  public class Monitor {
+    private final int maxTicks;
+    private final double[] lastHealth;
+    private final long[] hashes = new long[WINDOW];
+    private int tick, lastDamage, period, repeated;
+
+    private Monitor(SimulatorEngine engine, int maxTicks){
+      this.maxTicks=maxTicks;
+      ArrayList<Bot> bots = engine.getBots();
+      lastHealth = new double[bots.size()];
+      for (int i=0;i<lastHealth.length;i++) lastHealth[i]=bots.get(i).getHealth();
+    }
+    /** Call once after every tick; the reason the match is over, or null to go on. */
+    public Reason afterTick(SimulatorEngine engine) {
+      tick++;
+      if (MatchResult.isTeamWipedOut(engine,true) || MatchResult.isTeamWipedOut(engine,false)) return Reason.WIPEOUT;
+      if (quietTicks>0) {
+        ArrayList<Bot> bots = engine.getBots();
+        for (int i=0;i<lastHealth.length;i++) {
+          double h = bots.get(i).getHealth();
+          if (h<lastHealth[i]) lastDamage=tick;
+          lastHealth[i]=h;
+        }
+        if (tick-lastDamage>=quietTicks) return Reason.QUIET;
+      }
+      if (cycleTicks>0 && cycling(Lockstep.stateHash(engine))) return Reason.CYCLE;
+      return tick>=maxTicks?Reason.TIMEOUT:null;
+    }
+    public int getTick() { return tick; }
+
+    //same hash as period ticks ago, tick after tick; otherwise look for the latest earlier occurrence
+    private boolean cycling(long h) {
+      if (period>0 && hashes[(tick-period)%WINDOW]==h) {
+        repeated++;
+      } else {
+        period=0;
+        repeated=0;
+        for (int p=1;p<WINDOW && p<tick;p++)
+          if (hashes[(tick-p)%WINDOW]==h) { period=p; repeated=1; break; }
+      }
+      hashes[tick%WINDOW]=h;
+      return period>0 && repeated>=Math.max(2*period,cycleTicks);
+    }
+  }
+}
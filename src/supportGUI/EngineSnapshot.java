@@ -0,0 +1,235 @@
+package supportGUI;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import characteristics.ISnapshottable;
+import characteristics.Mailbox;
+import robotsimulator.Bot;
+import robotsimulator.Brain;
+import robotsimulator.Bullet;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Immutable copy of the mutable state of a SimulatorEngine, used for lookahead.
+ *
+ * The engine does not expose its state, so it is read and written by reflection: per bot
+ * position, heading, health, rocket flag and pending mailbox; per brain the pending command,
+ * fire latency and log line, plus its own fields when it implements ISnapshottable; every
+ * live bullet and explosion. The whole is kept as one compact byte array.
+ * Brains that do not implement ISnapshottable come back freshly activated after a fork.
+ * Released wrecks (see Wrecks) cannot be brought back to life in place: use fork().
+ */
+public class EngineSnapshot {
+  //---REFLECTION---//
+  private static final Field BOT_X=field(Bot.class,"x"), BOT_Y=field(Bot.class,"y"), BOT_ANGLE=field(Bot.class,"angle");
+  private static final Field BOT_HEALTH=field(Bot.class,"health"), BOT_ROCKET=field(Bot.class,"rocket");
+  private static final Field BOT_MAILBOX=field(Bot.class,"mailbox"), BOT_BRAIN=field(Bot.class,"brain");
+  private static final Field BRAIN_CMD=field(Brain.class,"currentCmd"), BRAIN_COUNTER=field(Brain.class,"counter");
+  private static final Field BRAIN_FIREDIR=field(Brain.class,"fireDirection"), BRAIN_LOG=field(Brain.class,"logMessage");
+  private static final Field[] BULLET=fields(Bullet.class,"x","y","heading","velocity","damage","radius","range");
+  private static final Field BULLET_COUNTER=field(Bullet.class,"counter");
+  private static final Field ENGINE_BULLETS=field(SimulatorEngine.class,"bullets"), ENGINE_EXPLOSIONS=field(SimulatorEngine.class,"explosions");
+
+  //---VARIABLES---//
+  private final byte[] data;
+  private final int botCount;
+
+  //---CONSTRUCTORS---//
+  private EngineSnapshot(byte[] data, int botCount){
+    this.data=data;
+    this.botCount=botCount;
+  }
+
+  //---CAPTURE/RESTORE---//
+  public static EngineSnapshot capture(SimulatorEngine engine) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+      ArrayList<Bot> bots = engine.getBots();
+      for (Bot b : bots) writeBot(out,b);
+      writeBullets(out,bullets(engine,ENGINE_BULLETS));
+      writeBullets(out,bullets(engine,ENGINE_EXPLOSIONS));
+      out.flush();
+      return new EngineSnapshot(bytes.toByteArray(),bots.size());
+    } catch (IOException|IllegalAccessException e) {
+      throw new IllegalStateException("Cannot snapshot engine", e);
+    }
+  }
+  public void restoreInto(SimulatorEngine engine) {
+    ArrayList<Bot> bots = engine.getBots();
+    if (bots.size()!=botCount)
+      throw new IllegalStateException("Snapshot has "+botCount+" bots, engine has "+bots.size());
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    try {
+      for (Bot b : bots) readBot(in,b);
+      readBullets(in,bullets(engine,ENGINE_BULLETS));
+      readBullets(in,bullets(engine,ENGINE_EXPLOSIONS));
+    } catch (IOException|IllegalAccessException e) {
+      throw new IllegalStateException("Cannot restore engine", e);
+    }
+  }
+  /** New headless engine, with the configured brains, in the captured state. */
+  public SimulatorEngine fork() {
+    SimulatorEngine engine = HeadlessRunner.newEngine();
+    HeadlessRunner.activate(engine);
+    restoreInto(engine);
+    return engine;
+  }
+  public int size() { return data.length; }
+
+  //---BOTS---//
+  private static void writeBot(DataOutputStream out, Bot b) throws IOException, IllegalAccessException {
+    out.writeDouble(BOT_X.getDouble(b));
+    out.writeDouble(BOT_Y.getDouble(b));
+    out.writeDouble(BOT_ANGLE.getDouble(b));
+    out.writeDouble(BOT_HEALTH.getDouble(b));
+    out.writeBoolean(BOT_ROCKET.getBoolean(b));
+    @SuppressWarnings("unchecked")
+    ArrayList<String> mailbox = (ArrayList<String>)BOT_MAILBOX.get(b);
+    out.writeInt(mailbox.size());
+    for (String m : mailbox) out.writeUTF(m);
+
+    Brain brain = (Brain)BOT_BRAIN.get(b);
+    Object cmd = BRAIN_CMD.get(brain);
+    out.writeUTF(cmd==null?"":((Enum<?>)cmd).name());
+    out.writeInt(BRAIN_COUNTER.getInt(brain));
+    out.writeDouble(BRAIN_FIREDIR.getDouble(brain));
+    String log = (String)BRAIN_LOG.get(brain);
+    out.writeUTF(log==null?"":log);
+    out.writeUTF(brain.getClass().getName());
+    if (brain instanceof ISnapshottable) {
+      ByteArrayOutputStream own = new ByteArrayOutputStream(128);
+      DataOutputStream ownOut = new DataOutputStream(own);
+      ((ISnapshottable)brain).saveState(ownOut);
+      ownOut.flush();
+      out.writeInt(own.size());
+      own.writeTo(out);
+    } else {
+      out.writeInt(-1);
+    }
+  }
+  @SuppressWarnings({"unchecked","rawtypes"})
+  private static void readBot(DataInputStream in, Bot b) throws IOException, IllegalAccessException {
+    BOT_X.setDouble(b,in.readDouble());
+    BOT_Y.setDouble(b,in.readDouble());
+    BOT_ANGLE.setDouble(b,in.readDouble());
+    BOT_HEALTH.setDouble(b,in.readDouble());
+    BOT_ROCKET.setBoolean(b,in.readBoolean());
+    ArrayList<String> mailbox = (ArrayList<String>)BOT_MAILBOX.get(b);
+    ArrayList<String> pending = new ArrayList<String>();
+    for (int n=in.readInt();n>0;n--) pending.add(in.readUTF());
+    if (mailbox instanceof Mailbox) {
+      ((Mailbox)mailbox).restore(pending);
+    } else {
+      mailbox.clear();
+      mailbox.addAll(pending);
+    }
+
+    Brain brain = (Brain)BOT_BRAIN.get(b);
+    if (brain instanceof Wrecks.Inert && !b.isDestroyed())
+      throw new IllegalStateException("Bot was released as a wreck after the capture; fork() instead");
+    String cmd = in.readUTF();
+    BRAIN_CMD.set(brain,cmd.isEmpty()?null:Enum.valueOf((Class<Enum>)BRAIN_CMD.getType(),cmd));
+    BRAIN_COUNTER.setInt(brain,in.readInt());
+    BRAIN_FIREDIR.setDouble(brain,in.readDouble());
+    String log = in.readUTF();
+    BRAIN_LOG.set(brain,log.isEmpty()?null:log);
+    String brainClass = in.readUTF();
+    int length = in.readInt();
+    if (length<0) return;
+    if (!brainClass.equals(brain.getClass().getName()) || !(brain instanceof ISnapshottable)) {
+      in.skipBytes(length);
+      return;
+    }
+    byte[] own = new byte[length];
+    in.readFully(own);
+    ((ISnapshottable)brain).restoreState(new DataInputStream(new ByteArrayInputStream(own)));
+  }
+
+  /** Ticks before this bot's brain may fire again; bulletFiringLatency right after a shot. */
+  static int fireLatency(Bot b) {
+    try {
+      return BRAIN_COUNTER.getInt(BOT_BRAIN.get(b));
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read brain fire latency", e);
+    }
+  }
+
+  /** The bot's mailbox: the engine's list, or the Mailbox installed by HeadlessRunner. */
+  @SuppressWarnings("unchecked")
+  static ArrayList<String> mailbox(Bot b) {
+    try {
+      return (ArrayList<String>)BOT_MAILBOX.get(b);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read bot mailbox", e);
+    }
+  }
+  static void setMailbox(Bot b, ArrayList<String> mailbox) {
+    try {
+      mailbox.addAll(mailbox(b));
+      BOT_MAILBOX.set(b,mailbox);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot replace bot mailbox", e);
+    }
+  }
+
+  //---BULLETS---//
+  /** Live bullets without advancing them, unlike SimulatorEngine.getCurrentBullets(). */
+  static ArrayList<Bullet> liveBullets(SimulatorEngine engine) {
+    try {
+      return bullets(engine,ENGINE_BULLETS);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read engine bullets", e);
+    }
+  }
+  /** Explosions of the last tick (the engine clears them when it advances bullets). */
+  static ArrayList<Bullet> liveExplosions(SimulatorEngine engine) {
+    try {
+      return bullets(engine,ENGINE_EXPLOSIONS);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read engine explosions", e);
+    }
+  }
+  @SuppressWarnings("unchecked")
+  private static ArrayList<Bullet> bullets(SimulatorEngine engine, Field f) throws IllegalAccessException {
+    return (ArrayList<Bullet>)f.get(engine);
+  }
+  private static void writeBullets(DataOutputStream out, ArrayList<Bullet> list) throws IOException, IllegalAccessException {
+    out.writeInt(list.size());
+    for (Bullet u : list) {
+      for (Field f : BULLET) out.writeDouble(f.getDouble(u));
+      out.writeInt(BULLET_COUNTER.getInt(u));
+    }
+  }
+  private static void readBullets(DataInputStream in, ArrayList<Bullet> list) throws IOException, IllegalAccessException {
+    list.clear();
+    for (int n=in.readInt();n>0;n--) {
+      Bullet u = new Bullet(0,0,0,0,0,0,0);
+      for (Field f : BULLET) f.setDouble(u,in.readDouble());
+      BULLET_COUNTER.setInt(u,in.readInt());
+      list.add(u);
+    }
+  }
+
+  //---HELPERS---//
+  private static Field field(Class<?> c, String name) {
+    try {
+      Field f = c.getDeclaredField(name);
+      f.setAccessible(true);
+      return f;
+    } catch (NoSuchFieldException e) {
+      throw new IllegalStateException("simulator.jar has no "+c.getSimpleName()+"."+name, e);
+    }
+  }
+  private static Field[] fields(Class<?> c, String... names) {
+    Field[] result = new Field[names.length];
+    for (int i=0;i<names.length;i++) result[i]=field(c,names[i]);
+    return result;
+  }
+}
@@ -0,0 +1,63 @@
+package supportGUI;
+
+import java.awt.BorderLayout;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Viewer whose simulation runs on its own thread (SimulationLoop) and is painted from
+ * published snapshots (SnapshotView), with a simulation speed selector.
+ * The original Viewer, where the Swing timer both steps and repaints, is unchanged.
+ */
+public class FastViewer {
+  //---PARAMETERS---//
+  private static final String[] SPEEDS = { "0.25x", "0.5x", "1x", "2x", "4x", "10x", "max" };
+
+  //---MAIN---//
+  public static void main(String[] args) {
+    SwingUtilities.invokeLater(() -> {
+      ClassLoader previous = BrainFactory.pinOnThisThread();
+      SimulatorEngine engine;
+      try {
+        engine = new SimulatorEngine(new DisplayGame(), new LogMessage());
+        Arena.populate(engine,MatchConfig.current());
+      } finally {
+        BrainFactory.useOnThisThread(previous);
+      }
+      HeadlessRunner.installMailboxes(engine,MatchConfig.current().getMailboxCapacity());
+      SimulationLoop loop = new SimulationLoop(engine);
+      SnapshotView view = new SnapshotView(loop);
+
+      JComboBox<String> speed = new JComboBox<String>(SPEEDS);
+      speed.setSelectedItem("1x");
+      speed.addActionListener(e -> {
+        String s = (String)speed.getSelectedItem();
+        loop.setSpeed(s.equals("max")?SimulationLoop.MAXSPEED:Double.parseDouble(s.substring(0,s.length()-1)));
+      });
+      JButton pause = new JButton("Pause");
+      pause.addActionListener(e -> {
+        loop.setPaused(!loop.isPaused());
+        pause.setText(loop.isPaused()?"Resume":"Pause");
+      });
+      JPanel controls = new JPanel();
+      controls.add(new JLabel("Speed"));
+      controls.add(speed);
+      controls.add(pause);
+
+      JFrame frame = new JFrame("Simovies - "+MatchConfig.current().getTeamAKey()+" vs "+MatchConfig.current().getTeamBKey());
+      frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+      frame.add(view,BorderLayout.CENTER);
+      frame.add(controls,BorderLayout.SOUTH);
+      frame.pack();
+      frame.setVisible(true);
+      loop.start();
+    });
+  }
+}
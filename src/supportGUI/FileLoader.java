@@ -11,20 +11,20 @@ import characteristics.Parameters;
 
 public class FileLoader {
   //---CONSTRUCTORS---//
-  public FileLoader(){}
+  public FileLoader(){ BrainFactory.preload(MatchConfig.current()); }
   
   //---GET/SETTERS---//
   public IBrain getTeamAMainBotBrain() {
-    return HardCodedParameters.instantiate(Parameters.teamAMainBotBrainClassName, IBrain.class);
+    return BrainFactory.instantiate(MatchConfig.current().getTeamAMain());
   }
   public IBrain getTeamASecondaryBotBrain() {
-    return HardCodedParameters.instantiate(Parameters.teamASecondaryBotBrainClassName, IBrain.class);
+    return BrainFactory.instantiate(MatchConfig.current().getTeamASecondary());
   }
   public IBrain getTeamBMainBotBrain() {
-    return HardCodedParameters.instantiate(Parameters.teamBMainBotBrainClassName, IBrain.class);
+    return BrainFactory.instantiate(MatchConfig.current().getTeamBMain());
   }
   public IBrain getTeamBSecondaryBotBrain() {
-    return HardCodedParameters.instantiate(Parameters.teamBSecondaryBotBrainClassName, IBrain.class);
+    return BrainFactory.instantiate(MatchConfig.current().getTeamBSecondary());
   }
   public String getTeamAMainBotAvatarFileName() {
     return Parameters.teamAMainBotAvatar;
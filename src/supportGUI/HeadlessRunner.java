@@ -0,0 +1,85 @@
+package supportGUI;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import characteristics.TeamLog;
+import robotsimulator.Bot;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Runs the simulator without the Swing timer nor a window.
+ *
+ * One tick does what the GUI timer plus one repaint do: every bot steps in the engine's
+ * list order, then the bullets are advanced (the engine moves bullets and applies hits when
+ * the display asks for them, see SimulatorEngine.getCurrentBullets). Unlike the GUI, destroyed
+ * bots are not stepped any more and are released (see Wrecks).
+ */
+public class HeadlessRunner {
+  //---CONSTRUCTORS---//
+  public HeadlessRunner(){}
+
+  //---ENGINE---//
+  public static SimulatorEngine newEngine() {
+    System.setProperty("java.awt.headless","true");
+    MatchConfig config = MatchConfig.current();
+    ClassLoader previous = BrainFactory.pinOnThisThread();
+    try {
+      SimulatorEngine engine = new SimulatorEngine(new DisplayGame(), new LogMessage());
+      Arena.populate(engine,config);
+      installMailboxes(engine,config.getMailboxCapacity());
+      return engine;
+    } finally {
+      BrainFactory.useOnThisThread(previous);
+    }
+  }
+  /**
+   * One shared TeamLog per team, read by each bot through its own cursor, in place of the
+   * engine's per-bot lists; capacity bounds the log (drop-oldest), 0 keeps the lists.
+   */
+  public static void installMailboxes(SimulatorEngine engine, int capacity) {
+    if (capacity<=0) return;
+    LinkedHashMap<Integer,ArrayList<Bot>> teams = new LinkedHashMap<Integer,ArrayList<Bot>>();
+    for (Bot b : engine.getBots()) teams.computeIfAbsent(b.getTeam(),t->new ArrayList<Bot>()).add(b);
+    for (ArrayList<Bot> team : teams.values()) {
+      TeamLog log = new TeamLog(capacity,team.size());
+      for (int i=0;i<team.size();i++) EngineSnapshot.setMailbox(team.get(i),log.reader(i)); //engine order, as broadcast() walks it
+    }
+  }
+  public static void activate(SimulatorEngine engine) {
+    for (Bot b : engine.getBots()) b.activate();
+  }
+  public static void tick(SimulatorEngine engine) {
+    ArrayList<Bot> bots = engine.getBots();
+    for (int i=0;i<bots.size();i++) if (!bots.get(i).isDestroyed()) bots.get(i).step();
+    engine.getCurrentBullets();
+    Wrecks.releaseDestroyed(bots);
+  }
+  public static void run(SimulatorEngine engine, int ticks) {
+    for (int t=0;t<ticks;t++) tick(engine);
+  }
+  /** Tick until end says the match is over, at the latest after maxTicks; returns why. */
+  public static EndCondition.Reason run(SimulatorEngine engine, int maxTicks, EndCondition end) {
+    if (maxTicks<=0) return EndCondition.Reason.TIMEOUT;
+    EndCondition.Monitor monitor = end.watch(engine,maxTicks);
+    EndCondition.Reason reason;
+    do {
+      tick(engine);
+      reason=monitor.afterTick(engine);
+    } while (reason==null);
+    return reason;
+  }
+
+  //---MAIN---//
+  public static void main(String[] args) {
+    int ticks = args.length>0 ? Integer.parseInt(args[0]) : 5000;
+    SimulatorEngine engine = newEngine();
+    activate(engine);
+    long start = System.nanoTime();
+    run(engine, ticks);
+    long elapsed = System.nanoTime()-start;
+    for (Bot b : engine.getBots())
+      System.out.println("team="+b.getTeam()+" x="+(int)b.getX()+" y="+(int)b.getY()+" health="+(int)b.getHealth());
+    System.out.println(ticks+" ticks in "+(elapsed/1000000)+" ms");
+  }
+}
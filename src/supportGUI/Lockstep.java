@@ -0,0 +1,117 @@
+package supportGUI;
+
+import java.util.Arrays;
+
+import algorithms.MatchRandom;
+import robotsimulator.Bot;
+import robotsimulator.Bullet;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Deterministic match: seeded randomness, no Swing timer, bots stepped in the engine's list
+ * order (fixed by SimulatorEngine.init), and a rolling checksum of the world after every tick.
+ *
+ * Two runs with the same seed and the same Parameters give the same checksum trace, so a
+ * divergence pinpoints the first tick at which an optimization changed behaviour.
+ * The config (and brain loader, see BrainIsolation) only apply to the calling thread, so
+ * matches may run in parallel on different threads.
+ */
+public class Lockstep {
+  //---VARIABLES---//
+  private final MatchConfig config;
+  private final ClassLoader brains;
+  private SimulatorEngine engine;
+  private MatchStats stats;
+  private long checksum;
+  private long[] trace = new long[1024];
+  private int tick;
+
+  //---CONSTRUCTORS---//
+  public Lockstep(long seed){
+    this(MatchConfig.current().withSeed(seed));
+  }
+  public Lockstep(MatchConfig config){
+    this(config,null);
+  }
+  /** Brains from the given loader; null for BrainFactory's global one. */
+  public Lockstep(MatchConfig config, ClassLoader brains){
+    this.config=config;
+    this.brains=brains;
+  }
+
+  //---RUN---//
+  public SimulatorEngine start() {
+    MatchConfig.useOnThisThread(config);
+    BrainFactory.useOnThisThread(brains);
+    BrainIsolation.seed(brains,config.getSeed()); //before the engine instantiates the brains
+    engine=HeadlessRunner.newEngine();
+    HeadlessRunner.activate(engine);
+    stats=new MatchStats(engine);
+    tick=0;
+    checksum=mix(config.getSeed(),stateHash(engine));
+    return engine;
+  }
+  public long tick() {
+    stats.tick(engine);
+    checksum=mix(checksum,stateHash(engine));
+    if (tick==trace.length) trace=Arrays.copyOf(trace,tick*2);
+    trace[tick++]=checksum;
+    return checksum;
+  }
+  public long run(int ticks) {
+    for (int t=0;t<ticks;t++) tick();
+    return checksum;
+  }
+
+  //---GET/SETTERS---//
+  public MatchConfig getConfig() { return config; }
+  public SimulatorEngine getEngine() { return engine; }
+  public MatchStats getStats() { return stats; }
+  public long getChecksum() { return checksum; }
+  public int getTick() { return tick; }
+  public long getChecksum(int t) { return trace[t]; }
+  /** First tick at which the two traces differ, or -1 if they agree on their common length. */
+  public int firstDivergence(Lockstep other) {
+    int n=Math.min(tick,other.tick);
+    for (int t=0;t<n;t++) if (trace[t]!=other.trace[t]) return t;
+    return -1;
+  }
+
+  //---CHECKSUM---//
+  /** Hash of what the engine exposes of the world: every bot's pose and health, every live bullet. */
+  public static long stateHash(SimulatorEngine engine) {
+    long h=0x84222325CBF29CE4L;
+    for (Bot b : engine.getBots()) {
+      h=mix(h,Double.doubleToLongBits(b.getX()));
+      h=mix(h,Double.doubleToLongBits(b.getY()));
+      h=mix(h,Double.doubleToLongBits(b.getHeading()));
+      h=mix(h,Double.doubleToLongBits(b.getHealth()));
+    }
+    for (Bullet u : EngineSnapshot.liveBullets(engine)) {
+      h=mix(h,Double.doubleToLongBits(u.getX()));
+      h=mix(h,Double.doubleToLongBits(u.getY()));
+      h=mix(h,Double.doubleToLongBits(u.getHeading()));
+    }
+    return h;
+  }
+  private static long mix(long h, long v) {
+    h^=v;
+    h*=0x9E3779B97F4A7C15L;
+    return h^(h>>>31);
+  }
+
+  //---MAIN---//
+  public static void main(String[] args) {
+    long seed = args.length>0 ? Long.parseLong(args[0]) : 0L;
+    int ticks = args.length>1 ? Integer.parseInt(args[1]) : 5000;
+    Lockstep first = new Lockstep(seed), second = new Lockstep(seed);
+    first.start();
+    first.run(ticks);
+    second.start();
+    second.run(ticks);
+    int diverged = first.firstDivergence(second);
+    System.out.println("seed="+seed+" ticks="+ticks+" checksum="+Long.toHexString(first.getChecksum())
+        +(diverged<0 ? " reproducible" : " DIVERGED at tick "+diverged));
+    MatchRandom.unseed();
+  }
+}
@@ -0,0 +1,110 @@
+package supportGUI;
+
+import characteristics.Parameters;
+
+/**
+ * Which brains play a match, how many of them, with which seed and for how long.
+ *
+ * Parameters holds compile-time constants, so FileLoader asks the current MatchConfig for
+ * brain class names instead; the default config is exactly what Parameters says.
+ * Team sizes other than the engine's 3 main + 2 secondary are applied by Arena; headless
+ * engines give each team a shared TeamLog of mailboxCapacity messages as mailboxes.
+ */
+public class MatchConfig {
+  //---PARAMETERS---//
+  public static final int DEFAULTMAILBOX = 1024;
+
+  //---VARIABLES---//
+  private final String teamAMain, teamASecondary, teamBMain, teamBSecondary;
+  private final long seed;
+  private final int maxTicks;
+  private final int teamAMains, teamASecondaries, teamBMains, teamBSecondaries;
+  private final int mailboxCapacity;
+  private static volatile MatchConfig current = defaults();
+  private static final ThreadLocal<MatchConfig> local = new ThreadLocal<MatchConfig>();
+
+  //---CONSTRUCTORS---//
+  public MatchConfig(String teamAMain, String teamASecondary, String teamBMain, String teamBSecondary, long seed, int maxTicks){
+    this(teamAMain,teamASecondary,teamBMain,teamBSecondary,seed,maxTicks,Arena.MAINS,Arena.SECONDARIES,Arena.MAINS,Arena.SECONDARIES,DEFAULTMAILBOX);
+  }
+  private MatchConfig(String teamAMain, String teamASecondary, String teamBMain, String teamBSecondary, long seed, int maxTicks,
+                      int teamAMains, int teamASecondaries, int teamBMains, int teamBSecondaries, int mailboxCapacity){
+    this.teamAMain=teamAMain;
+    this.teamASecondary=teamASecondary;
+    this.teamBMain=teamBMain;
+    this.teamBSecondary=teamBSecondary;
+    this.seed=seed;
+    this.maxTicks=maxTicks;
+    this.teamAMains=teamAMains;
+    this.teamASecondaries=teamASecondaries;
+    this.teamBMains=teamBMains;
+    this.teamBSecondaries=teamBSecondaries;
+    this.mailboxCapacity=mailboxCapacity;
+  }
+  public static MatchConfig defaults() {
+    return new MatchConfig(Parameters.teamAMainBotBrainClassName, Parameters.teamASecondaryBotBrainClassName,
+                           Parameters.teamBMainBotBrainClassName, Parameters.teamBSecondaryBotBrainClassName, 0L, 10000);
+  }
+  public MatchConfig withSeed(long s) {
+    return new MatchConfig(teamAMain,teamASecondary,teamBMain,teamBSecondary,s,maxTicks,teamAMains,teamASecondaries,teamBMains,teamBSecondaries,mailboxCapacity);
+  }
+  public MatchConfig withMaxTicks(int t) {
+    return new MatchConfig(teamAMain,teamASecondary,teamBMain,teamBSecondary,seed,t,teamAMains,teamASecondaries,teamBMains,teamBSecondaries,mailboxCapacity);
+  }
+  public MatchConfig withTeamSizes(int aMains, int aSecondaries, int bMains, int bSecondaries) {
+    if (aMains<0 || aSecondaries<0 || bMains<0 || bSecondaries<0 || aMains+aSecondaries==0 || bMains+bSecondaries==0)
+      throw new IllegalArgumentException("Each team needs at least one bot");
+    return new MatchConfig(teamAMain,teamASecondary,teamBMain,teamBSecondary,seed,maxTicks,aMains,aSecondaries,bMains,bSecondaries,mailboxCapacity);
+  }
+  /** Messages a bot's mailbox keeps before dropping the oldest; 0 keeps the engine's unbounded list. */
+  public MatchConfig withMailboxCapacity(int capacity) {
+    if (capacity<0) throw new IllegalArgumentException("Negative mailbox capacity");
+    return new MatchConfig(teamAMain,teamASecondary,teamBMain,teamBSecondary,seed,maxTicks,teamAMains,teamASecondaries,teamBMains,teamBSecondaries,capacity);
+  }
+
+  //---CURRENT---//
+  /** Config the next engine (i.e. the next FileLoader calls) will use: this thread's, if set. */
+  public static MatchConfig current() {
+    MatchConfig c = local.get();
+    return c!=null?c:current;
+  }
+  public static void use(MatchConfig config) { current = config; }
+  /** Config for engines built on the calling thread only, e.g. by parallel matches; null to unset. */
+  public static void useOnThisThread(MatchConfig config) {
+    if (config==null) local.remove();
+    else local.set(config);
+  }
+
+  //---GET/SETTERS---//
+  public String getTeamAMain() { return teamAMain; }
+  public String getTeamASecondary() { return teamASecondary; }
+  public String getTeamBMain() { return teamBMain; }
+  public String getTeamBSecondary() { return teamBSecondary; }
+  public long getSeed() { return seed; }
+  public int getMaxTicks() { return maxTicks; }
+  public int getTeamAMains() { return teamAMains; }
+  public int getTeamASecondaries() { return teamASecondaries; }
+  public int getTeamBMains() { return teamBMains; }
+  public int getTeamBSecondaries() { return teamBSecondaries; }
+  public int getMailboxCapacity() { return mailboxCapacity; }
+  /** The engine's own 3 main + 2 secondary per team. */
+  public boolean isStandardSize() {
+    return teamAMains==Arena.MAINS && teamBMains==Arena.MAINS && teamASecondaries==Arena.SECONDARIES && teamBSecondaries==Arena.SECONDARIES;
+  }
+  public String getTeamAKey() { return teamAMain+"+"+teamASecondary; }
+  public String getTeamBKey() { return teamBMain+"+"+teamBSecondary; }
+  /** 64-bit FNV-1a of everything but the seed, to group results of identical setups. */
+  public long getConfigHash() {
+    long h = 0xCBF29CE484222325L;
+    String s = teamAMain+"|"+teamASecondary+"|"+teamBMain+"|"+teamBSecondary+"|"+maxTicks;
+    if (!isStandardSize()) s+="|"+teamAMains+"|"+teamASecondaries+"|"+teamBMains+"|"+teamBSecondaries;
+    if (mailboxCapacity!=DEFAULTMAILBOX) s+="|mailbox="+mailboxCapacity;
+    for (int i=0;i<s.length();i++) { h^=s.charAt(i); h*=0x100000001B3L; }
+    return h;
+  }
+  public String toString() {
+    String sizes = isStandardSize()?"":" ("+teamAMains+"+"+teamASecondaries+" vs "+teamBMains+"+"+teamBSecondaries+")";
+    String mailbox = mailboxCapacity==DEFAULTMAILBOX?"":" mailbox="+mailboxCapacity;
+    return getTeamAKey()+" vs "+getTeamBKey()+sizes+mailbox+" seed="+seed;
+  }
+}
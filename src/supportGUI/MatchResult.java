@@ -0,0 +1,116 @@
+package supportGUI;
+
+import robotsimulator.Bot;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Outcome of one finished match.
+ *
+ * Team A is the engine's team constant for aMain1 (ENGINE_TEAM_A, whatever the team sizes or
+ * bot order). A team wins when the other one is
+ * wiped out, or else by the larger fraction of its total health left when the match ends
+ * otherwise (see EndCondition).
+ */
+public class MatchResult {
+  //---PARAMETERS---//
+  public static final int TEAM_A = 0, TEAM_B = 1, DRAW = -1;
+  //Bot.getTeam() values SimulatorEngine.init gives its A and B bots (their display colours)
+  public static final int ENGINE_TEAM_A = 0x51E77E, ENGINE_TEAM_B = 0xED1C7E;
+  private static final double HEALTHPRECISION = 0.001;
+
+  //---VARIABLES---//
+  private final MatchConfig config;
+  private final int ticks, winner;
+  private final double teamAHealth, teamBHealth;
+  private double[] botHealth = new double[0];
+  private boolean[] botTeamA = new boolean[0];
+  private MatchStats stats;
+  private EndCondition.Reason end;
+
+  //---CONSTRUCTORS---//
+  public MatchResult(MatchConfig config, int ticks, double teamAHealth, double teamBHealth, int winner){
+    this.config=config;
+    this.ticks=ticks;
+    this.teamAHealth=teamAHealth;
+    this.teamBHealth=teamBHealth;
+    this.winner=winner;
+  }
+  public static MatchResult of(MatchConfig config, SimulatorEngine engine, int ticks, MatchStats stats, EndCondition.Reason end) {
+    MatchResult result = of(config,engine,ticks,stats);
+    result.end=end;
+    return result;
+  }
+  public static MatchResult of(MatchConfig config, SimulatorEngine engine, int ticks, MatchStats stats) {
+    MatchResult result = of(config,engine,ticks);
+    int n = engine.getBots().size();
+    result.botHealth = new double[n];
+    result.botTeamA = new boolean[n];
+    for (int i=0;i<n;i++) {
+      Bot b = engine.getBots().get(i);
+      result.botHealth[i]=Math.max(0,b.getHealth());
+      result.botTeamA[i]=isTeamA(b);
+    }
+    result.stats=stats;
+    return result;
+  }
+  public static MatchResult of(MatchConfig config, SimulatorEngine engine, int ticks) {
+    double aHealth=0, aMax=0, bHealth=0, bMax=0;
+    boolean aAlive=false, bAlive=false;
+    for (Bot b : engine.getBots()) {
+      double h = Math.max(0,b.getHealth());
+      if (isTeamA(b)) { aHealth+=h; aMax+=b.getMaxHealth(); aAlive|=!b.isDestroyed(); }
+      else { bHealth+=h; bMax+=b.getMaxHealth(); bAlive|=!b.isDestroyed(); }
+    }
+    aHealth/=aMax;
+    bHealth/=bMax;
+    int winner;
+    if (aAlive!=bAlive) winner = aAlive?TEAM_A:TEAM_B;
+    else if (Math.abs(aHealth-bHealth)<HEALTHPRECISION) winner = DRAW;
+    else winner = aHealth>bHealth?TEAM_A:TEAM_B;
+    return new MatchResult(config,ticks,aHealth,bHealth,winner);
+  }
+
+  //---GET/SETTERS---//
+  public MatchConfig getConfig() { return config; }
+  public int getTicks() { return ticks; }
+  public int getWinner() { return winner; }
+  /** Fraction of team A's total max health left, in [0,1]. */
+  public double getTeamAHealth() { return teamAHealth; }
+  public double getTeamBHealth() { return teamBHealth; }
+  /** Per bot, in engine order; empty unless built from an engine with its stats. */
+  public int getBotCount() { return botHealth.length; }
+  public double getBotHealth(int bot) { return botHealth[bot]; }
+  public boolean isTeamA(int bot) { return botTeamA[bot]; }
+  /** Null when the match was not stepped through MatchStats. */
+  public MatchStats getStats() { return stats; }
+  /** Why the match stopped; null when not played under an EndCondition. */
+  public EndCondition.Reason getEnd() { return end; }
+  public int getShots(boolean teamA) {
+    int s=0;
+    if (stats!=null) for (int i=0;i<botTeamA.length;i++) if (botTeamA[i]==teamA) s+=stats.getShots(i);
+    return s;
+  }
+  /** Hits landed by a team, counted as hits taken by the other team. */
+  public int getHits(boolean teamA) {
+    int h=0;
+    if (stats!=null) for (int i=0;i<botTeamA.length;i++) if (botTeamA[i]!=teamA) h+=stats.getHitsTaken(i);
+    return h;
+  }
+  public long getMessagesDropped(boolean teamA) {
+    long d=0;
+    if (stats!=null) for (int i=0;i<botTeamA.length;i++) if (botTeamA[i]==teamA) d+=stats.getMessagesDropped(i);
+    return d;
+  }
+  /** 1 if team A won, 0 if it lost, 0.5 for a draw. */
+  public double getScoreA() { return winner==TEAM_A?1:winner==TEAM_B?0:0.5; }
+  public static boolean isTeamWipedOut(SimulatorEngine engine, boolean teamA) {
+    for (Bot b : engine.getBots()) if (isTeamA(b)==teamA && !b.isDestroyed()) return false;
+    return true;
+  }
+  public static boolean isTeamA(Bot b) { return b.getTeam()==ENGINE_TEAM_A; }
+  public String toString() {
+    return config+" ticks="+ticks+" winner="+(winner==TEAM_A?"A":winner==TEAM_B?"B":"draw")
+        +String.format(" health=%.2f/%.2f",teamAHealth,teamBHealth)+(end==null?"":" end="+end.name().toLowerCase())
+        +(getMessagesDropped(true)+getMessagesDropped(false)==0?"":" dropped="+getMessagesDropped(true)+"/"+getMessagesDropped(false));
+  }
+}
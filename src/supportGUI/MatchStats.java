@@ -0,0 +1,69 @@
+package supportGUI;
+
+import java.util.ArrayList;
+
+import characteristics.Mailbox;
+import characteristics.Parameters;
+import robotsimulator.Bot;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Per-bot counters gathered while a match is stepped: time spent in each brain's step,
+ * shots actually fired, bullet hits taken, and messages lost to a full Mailbox.
+ *
+ * tick() performs the same tick as HeadlessRunner.tick(). Brain time is the elapsed time of
+ * Bot.step() on the (single) simulation thread. A shot is counted when the brain's fire
+ * latency was just reset; hits are derived from health drops, as the engine does not tell
+ * which bot fired the bullet that hit.
+ */
+public class MatchStats {
+  //---VARIABLES---//
+  private final long[] stepNanos;
+  private final int[] shots, hitsTaken;
+  private final double[] lastHealth;
+  private final Mailbox[] mailboxes;
+
+  //---CONSTRUCTORS---//
+  public MatchStats(SimulatorEngine engine){
+    int n = engine.getBots().size();
+    stepNanos = new long[n];
+    shots = new int[n];
+    hitsTaken = new int[n];
+    lastHealth = new double[n];
+    mailboxes = new Mailbox[n];
+    for (int i=0;i<n;i++) {
+      Bot b = engine.getBots().get(i);
+      lastHealth[i]=b.getHealth();
+      ArrayList<String> mailbox = EngineSnapshot.mailbox(b);
+      if (mailbox instanceof Mailbox) mailboxes[i]=(Mailbox)mailbox;
+    }
+  }
+
+  //---TICK---//
+  public void tick(SimulatorEngine engine) {
+    ArrayList<Bot> bots = engine.getBots();
+    for (int i=0;i<bots.size();i++) {
+      Bot b = bots.get(i);
+      if (b.isDestroyed()) continue;
+      long start = System.nanoTime();
+      b.step();
+      stepNanos[i]+=System.nanoTime()-start;
+      if (EngineSnapshot.fireLatency(b)==Parameters.bulletFiringLatency) shots[i]++;
+    }
+    engine.getCurrentBullets();
+    Wrecks.releaseDestroyed(bots);
+    for (int i=0;i<bots.size();i++) {
+      double h = bots.get(i).getHealth();
+      if (h<lastHealth[i]) hitsTaken[i]+=Math.max(1,(int)Math.round((lastHealth[i]-h)/Parameters.bulletDamage));
+      lastHealth[i]=h;
+    }
+  }
+
+  //---GET/SETTERS---//
+  public int getBotCount() { return shots.length; }
+  public long getStepNanos(int bot) { return stepNanos[bot]; }
+  public int getShots(int bot) { return shots[bot]; }
+  public int getHitsTaken(int bot) { return hitsTaken[bot]; }
+  /** 0 when the engine's unbounded list is in use. */
+  public long getMessagesDropped(int bot) { return mailboxes[bot]==null?0:mailboxes[bot].getDropped(); }
+}
@@ -0,0 +1,243 @@
+package supportGUI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Glicko-2 ratings updated match by match, for main brain classes, secondary brain classes
+ * and main+secondary team combinations (keys "main:", "secondary:" and "team:").
+ *
+ * Every match is its own rating period, so a result is folded in as soon as it is known and
+ * rankings can be read at any time. Keys that sit a period out get the step-6 deviation
+ * increase lazily: each rating remembers the period it was last rated in, and catches up on
+ * the periods it missed when it is next rated or ranked.
+ * Each updated rating is appended to the ladder file as a record; on restart the last record
+ * of each key wins, a record torn by a crash is cut off, and the file is rewritten with one
+ * record per key once it grows past COMPACTFACTOR times the number of keys.
+ */
+public class RatingLadder {
+  //---PARAMETERS---//
+  public static final String MAIN = "main:", SECONDARY = "secondary:", TEAM = "team:";
+  private static final double SCALE = 173.7178, DEFAULTRATING = 1500, DEFAULTRD = 350, DEFAULTVOLATILITY = 0.06;
+  private static final double TAU = 0.5, EPSILON = 0.000001;
+  private static final int COMPACTFACTOR = 8;
+
+  //---RATING---//
+  public static class Rating {
+    private final String key;
+    private double mu, phi, sigma; //Glicko-2 scale
+    private int games, period;
+    private Rating(String key){
+      this.key=key;
+      mu=0;
+      phi=DEFAULTRD/SCALE;
+      sigma=DEFAULTVOLATILITY;
+    }
+    public String getKey() { return key; }
+    public double getRating() { return DEFAULTRATING+SCALE*mu; }
+    public double getDeviation() { return SCALE*phi; }
+    public double getVolatility() { return sigma; }
+    public int getGames() { return games; }
+    /** Pessimistic estimate used for ordering: rating minus two deviations. */
+    public double getConservative() { return getRating()-2*getDeviation(); }
+    public String toString() {
+      return String.format("%-60s %7.1f +/-%5.1f games=%d",key,getRating(),2*getDeviation(),games);
+    }
+  }
+
+  //---VARIABLES---//
+  private final HashMap<String,Rating> ratings = new HashMap<String,Rating>();
+  private final File file;
+  private DataOutputStream log;
+  private int records, periods;
+
+  //---CONSTRUCTORS---//
+  /** In-memory ladder. */
+  public RatingLadder(){
+    this.file=null;
+  }
+  /** Ladder persisted to file; existing ratings are loaded first. */
+  public RatingLadder(File file) throws IOException {
+    this.file=file;
+    if (file.exists()) load();
+    if (records>COMPACTFACTOR*Math.max(1,ratings.size())) compact();
+    else openLog();
+  }
+
+  //---UPDATES---//
+  public synchronized void record(MatchResult result) throws IOException {
+    MatchConfig c = result.getConfig();
+    double s = result.getScoreA();
+    periods++;
+    update(MAIN+c.getTeamAMain(),MAIN+c.getTeamBMain(),s);
+    update(SECONDARY+c.getTeamASecondary(),SECONDARY+c.getTeamBSecondary(),s);
+    update(TEAM+c.getTeamAKey(),TEAM+c.getTeamBKey(),s);
+    if (log!=null) {
+      log.flush();
+      if (records>COMPACTFACTOR*ratings.size()) compact();
+    }
+  }
+  /** One game between a and b, scoreA in [0,1]; both sides are rated from their pre-game values. */
+  public synchronized void update(String a, String b, double scoreA) throws IOException {
+    if (a.equals(b)) return; //mirror match, no information
+    Rating ra = get(a), rb = get(b);
+    idle(ra,periods-1);
+    idle(rb,periods-1);
+    double muA=ra.mu, phiA=ra.phi, muB=rb.mu, phiB=rb.phi;
+    glicko2(ra,muB,phiB,scoreA);
+    glicko2(rb,muA,phiA,1-scoreA);
+    ra.period=periods;
+    rb.period=periods;
+    append(ra);
+    append(rb);
+  }
+  /** Glicko-2 step 6 for every period r sat out, from its last rating up to period upTo. */
+  private static void idle(Rating r, int upTo) {
+    int missed = upTo-r.period;
+    if (missed<=0) return;
+    r.phi = Math.min(DEFAULTRD/SCALE,Math.sqrt(r.phi*r.phi+missed*r.sigma*r.sigma));
+    r.period = upTo;
+  }
+  private static void glicko2(Rating r, double muJ, double phiJ, double score) {
+    double g = 1/Math.sqrt(1+3*phiJ*phiJ/(Math.PI*Math.PI));
+    double e = 1/(1+Math.exp(-g*(r.mu-muJ)));
+    double v = 1/(g*g*e*(1-e));
+    double delta = v*g*(score-e);
+
+    //volatility: Illinois iteration on f(x)=0, x=ln(sigma'^2)
+    double a = Math.log(r.sigma*r.sigma), phi2 = r.phi*r.phi;
+    double A = a, B;
+    if (delta*delta>phi2+v) B = Math.log(delta*delta-phi2-v);
+    else {
+      int k=1;
+      while (volatilityF(a-k*TAU,delta,phi2,v,a)<0) k++;
+      B = a-k*TAU;
+    }
+    double fA = volatilityF(A,delta,phi2,v,a), fB = volatilityF(B,delta,phi2,v,a);
+    while (Math.abs(B-A)>EPSILON) {
+      double C = A+(A-B)*fA/(fB-fA), fC = volatilityF(C,delta,phi2,v,a);
+      if (fC*fB<=0) { A=B; fA=fB; } else fA/=2;
+      B=C; fB=fC;
+    }
+    double sigma = Math.exp(A/2);
+    double phiStar = Math.sqrt(phi2+sigma*sigma);
+    r.phi = 1/Math.sqrt(1/(phiStar*phiStar)+1/v);
+    r.mu += r.phi*r.phi*g*(score-e);
+    r.sigma = sigma;
+    r.games++;
+  }
+  private static double volatilityF(double x, double delta, double phi2, double v, double a) {
+    double ex = Math.exp(x), d = phi2+v+ex;
+    return ex*(delta*delta-phi2-v-ex)/(2*d*d)-(x-a)/(TAU*TAU);
+  }
+
+  //---QUERIES---//
+  public synchronized Rating getRating(String key) {
+    Rating r = ratings.get(key);
+    if (r!=null) idle(r,periods);
+    return r;
+  }
+  /** Ratings whose key starts with prefix (MAIN, SECONDARY, TEAM), best first. */
+  public synchronized ArrayList<Rating> ranking(String prefix) {
+    ArrayList<Rating> result = new ArrayList<Rating>();
+    for (Rating r : ratings.values()) {
+      if (!r.key.startsWith(prefix)) continue;
+      idle(r,periods);
+      result.add(r);
+    }
+    Collections.sort(result,(x,y)->Double.compare(y.getConservative(),x.getConservative()));
+    return result;
+  }
+  public synchronized int size() { return ratings.size(); }
+
+  //---PERSISTENCE---//
+  public synchronized void close() throws IOException {
+    if (log!=null) log.close();
+    log=null;
+  }
+  private Rating get(String key) {
+    Rating r = ratings.get(key);
+    if (r==null) { r=new Rating(key); ratings.put(key,r); }
+    return r;
+  }
+  private void append(Rating r) throws IOException {
+    if (log==null) return;
+    log.writeUTF(r.key);
+    log.writeDouble(r.mu);
+    log.writeDouble(r.phi);
+    log.writeDouble(r.sigma);
+    log.writeInt(r.games);
+    log.writeInt(r.period);
+    records++;
+  }
+  private void load() throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    long end = 0; //byte offset after the last complete record
+    try {
+      while (true) {
+        String key = in.readUTF();
+        double mu=in.readDouble(), phi=in.readDouble(), sigma=in.readDouble();
+        int games=in.readInt(), period=in.readInt();
+        Rating r = get(key);
+        r.mu=mu; r.phi=phi; r.sigma=sigma; r.games=games; r.period=period;
+        periods=Math.max(periods,period);
+        end+=2+utfLength(key)+3*8+2*4;
+        records++;
+      }
+    } catch (EOFException e) {
+      //end of file, or a record torn by a crash: everything before it is kept
+    } finally {
+      in.close();
+    }
+    if (file.length()>end) {
+      try (FileChannel channel = FileChannel.open(file.toPath(),StandardOpenOption.WRITE)) {
+        channel.truncate(end);
+      }
+    }
+  }
+  //bytes of key in DataOutput.writeUTF's modified UTF-8, without the length prefix
+  private static int utfLength(String key) {
+    int n=0;
+    for (int i=0;i<key.length();i++) {
+      char c = key.charAt(i);
+      n += (c>=0x0001 && c<=0x007F) ? 1 : (c<=0x07FF ? 2 : 3);
+    }
+    return n;
+  }
+  private void openLog() throws IOException {
+    log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file,true)));
+  }
+  private void compact() throws IOException {
+    close();
+    File tmp = new File(file.getPath()+".tmp");
+    log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+    records=0;
+    for (Rating r : ratings.values()) append(r);
+    close();
+    if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file)))
+      throw new IOException("Cannot replace "+file);
+    openLog();
+  }
+
+  //---MAIN---//
+  public static void main(String[] args) throws IOException {
+    RatingLadder ladder = new RatingLadder(new File(args.length>0?args[0]:"ladder.bin"));
+    for (String prefix : new String[]{TEAM,MAIN,SECONDARY}) {
+      System.out.println("=== "+prefix);
+      for (Rating r : ladder.ranking(prefix)) System.out.println(r);
+    }
+    ladder.close();
+  }
+}
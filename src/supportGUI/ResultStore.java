@@ -0,0 +1,326 @@
+package supportGUI;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Append-only store of match results, one fixed-width file per column in a directory.
+ *
+ * Brain class names are dictionary encoded (brains.dict, one name per line, id = line).
+ * Rows are buffered per column and appended through FileChannels; on open every column is
+ * cut back to the shortest one, so a row torn by a crash disappears as a whole.
+ * Queries memory-map only the columns they touch and scan them row by row, so filters and
+ * group-bys over millions of rows do not load the table on heap.
+ * Bots are stored in MAXBOTS per-bot slots in engine order; unused slots hold -1/0, and
+ * matches with more bots than that are rejected.
+ */
+public class ResultStore {
+  //---PARAMETERS---//
+  public static final int MAXBOTS = 10;
+  private static final int BUFFERROWS = 4096;
+  private static final String DICTIONARY = "brains.dict";
+
+  public static enum Type {
+    BYTE(1), INT(4), LONG(8), FLOAT(4), BRAIN(4);
+    final int width;
+    Type(int width){ this.width=width; }
+  }
+
+  //---SCHEMA---//
+  private static final ArrayList<String> NAMES = new ArrayList<String>();
+  private static final ArrayList<Type> TYPES = new ArrayList<Type>();
+  static {
+    column("teamAMain",Type.BRAIN); column("teamASecondary",Type.BRAIN);
+    column("teamBMain",Type.BRAIN); column("teamBSecondary",Type.BRAIN);
+    column("seed",Type.LONG); column("config",Type.LONG);
+    column("winner",Type.BYTE); column("ticks",Type.INT);
+    column("teamAHealth",Type.FLOAT); column("teamBHealth",Type.FLOAT);
+    column("shotsA",Type.INT); column("shotsB",Type.INT);
+    column("hitsA",Type.INT); column("hitsB",Type.INT);
+    for (int i=0;i<MAXBOTS;i++) column("health"+i,Type.FLOAT);
+    for (int i=0;i<MAXBOTS;i++) column("cpu"+i,Type.LONG); //nanoseconds in Bot.step()
+  }
+  private static void column(String name, Type type) {
+    NAMES.add(name);
+    TYPES.add(type);
+  }
+
+  //---VARIABLES---//
+  private final File dir;
+  private final FileChannel[] channels;
+  private final ByteBuffer[] buffers;
+  private final ArrayList<String> brains = new ArrayList<String>();
+  private final HashMap<String,Integer> brainIds = new HashMap<String,Integer>();
+  private Writer dictionary;
+  private long rows, pending;
+
+  //---CONSTRUCTORS---//
+  public ResultStore(File dir) throws IOException {
+    this.dir=dir;
+    if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create "+dir);
+    loadDictionary();
+    int n = NAMES.size();
+    channels = new FileChannel[n];
+    buffers = new ByteBuffer[n];
+    rows = Long.MAX_VALUE;
+    for (int c=0;c<n;c++) {
+      channels[c] = FileChannel.open(file(c).toPath(),StandardOpenOption.CREATE,StandardOpenOption.READ,StandardOpenOption.WRITE);
+      buffers[c] = ByteBuffer.allocateDirect(BUFFERROWS*TYPES.get(c).width);
+      rows = Math.min(rows,channels[c].size()/TYPES.get(c).width);
+    }
+    for (int c=0;c<n;c++) {
+      channels[c].truncate(rows*TYPES.get(c).width);
+      channels[c].position(rows*TYPES.get(c).width);
+    }
+  }
+
+  //---WRITE---//
+  public synchronized void append(MatchResult r) throws IOException {
+    MatchConfig c = r.getConfig();
+    int n = c.getTeamAMains()+c.getTeamASecondaries()+c.getTeamBMains()+c.getTeamBSecondaries();
+    if (Math.max(n,r.getBotCount())>MAXBOTS)
+      throw new IllegalArgumentException(c+": "+Math.max(n,r.getBotCount())+" bots, the store keeps "+MAXBOTS);
+    int k=0;
+    putInt(k++,brainId(c.getTeamAMain()));
+    putInt(k++,brainId(c.getTeamASecondary()));
+    putInt(k++,brainId(c.getTeamBMain()));
+    putInt(k++,brainId(c.getTeamBSecondary()));
+    buffers[k++].putLong(c.getSeed());
+    buffers[k++].putLong(c.getConfigHash());
+    buffers[k++].put((byte)r.getWinner());
+    putInt(k++,r.getTicks());
+    buffers[k++].putFloat((float)r.getTeamAHealth());
+    buffers[k++].putFloat((float)r.getTeamBHealth());
+    putInt(k++,r.getShots(true));
+    putInt(k++,r.getShots(false));
+    putInt(k++,r.getHits(true));
+    putInt(k++,r.getHits(false));
+    for (int i=0;i<MAXBOTS;i++) buffers[k++].putFloat(i<r.getBotCount()?(float)r.getBotHealth(i):-1);
+    for (int i=0;i<MAXBOTS;i++) buffers[k++].putLong(r.getStats()!=null&&i<r.getStats().getBotCount()?r.getStats().getStepNanos(i):0);
+    if (++pending==BUFFERROWS) flush();
+  }
+  private void putInt(int column, int value) { buffers[column].putInt(value); }
+  public synchronized void flush() throws IOException {
+    if (pending==0) return;
+    dictionary.flush();
+    for (int c=0;c<channels.length;c++) {
+      buffers[c].flip();
+      while (buffers[c].hasRemaining()) channels[c].write(buffers[c]);
+      buffers[c].clear();
+    }
+    rows+=pending;
+    pending=0;
+  }
+  public synchronized void close() throws IOException {
+    flush();
+    for (FileChannel ch : channels) ch.close();
+    dictionary.close();
+  }
+
+  //---DICTIONARY---//
+  private int brainId(String name) throws IOException {
+    Integer id = brainIds.get(name);
+    if (id!=null) return id;
+    brainIds.put(name,brains.size());
+    brains.add(name);
+    dictionary.write(name);
+    dictionary.write('\n');
+    return brains.size()-1;
+  }
+  private void loadDictionary() throws IOException {
+    File f = new File(dir,DICTIONARY);
+    if (f.exists()) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(f),StandardCharsets.UTF_8));
+      try {
+        for (String line=in.readLine();line!=null;line=in.readLine()) {
+          brainIds.put(line,brains.size());
+          brains.add(line);
+        }
+      } finally {
+        in.close();
+      }
+    }
+    dictionary = new OutputStreamWriter(new FileOutputStream(f,true),StandardCharsets.UTF_8);
+  }
+  public synchronized String brainName(int id) { return id>=0&&id<brains.size()?brains.get(id):"?"; }
+  /** Dictionary id of a brain class, or -1 if no stored match used it. */
+  public synchronized int lookupBrain(String name) {
+    Integer id = brainIds.get(name);
+    return id==null?-1:id;
+  }
+
+  //---READ---//
+  /** Rows visible to queries, i.e. already flushed. */
+  public synchronized long rows() { return rows; }
+  private File file(int column) { return new File(dir,NAMES.get(column)+".col"); }
+  private int index(String name) {
+    int c = NAMES.indexOf(name);
+    if (c<0) throw new IllegalArgumentException("No column "+name+" in "+NAMES);
+    return c;
+  }
+  public Column column(String name) throws IOException {
+    return column(name,rows());
+  }
+  private Column column(String name, long rows) throws IOException {
+    int c = index(name);
+    return new Column(TYPES.get(c),channels[c],rows);
+  }
+  public Query query() { return new Query(); }
+
+  //---COLUMN---//
+  public static class Column {
+    private final Type type;
+    private final MappedByteBuffer map;
+    private Column(Type type, FileChannel channel, long rows) throws IOException {
+      this.type=type;
+      long bytes = rows*type.width;
+      if (bytes>Integer.MAX_VALUE) throw new IOException("Column larger than 2GB; split the store");
+      map = channel.map(FileChannel.MapMode.READ_ONLY,0,bytes);
+    }
+    public Type getType() { return type; }
+    public long getLong(long row) {
+      int at = (int)(row*type.width);
+      switch (type) {
+        case BYTE: return map.get(at);
+        case LONG: return map.getLong(at);
+        case FLOAT: return (long)map.getFloat(at);
+        default: return map.getInt(at);
+      }
+    }
+    public double getDouble(long row) {
+      int at = (int)(row*type.width);
+      switch (type) {
+        case FLOAT: return map.getFloat(at);
+        case LONG: return map.getLong(at);
+        default: return getLong(row);
+      }
+    }
+  }
+
+  //---QUERY---//
+  public static class Group {
+    private final String label;
+    private long count;
+    private double sum, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+    private Group(String label){ this.label=label; }
+    private void add(double v) {
+      count++;
+      sum+=v;
+      if (v<min) min=v;
+      if (v>max) max=v;
+    }
+    public String getLabel() { return label; }
+    public long getCount() { return count; }
+    public double getSum() { return sum; }
+    public double getMean() { return count==0?Double.NaN:sum/count; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+    public String toString() { return String.format("%-50s n=%d mean=%.3f min=%.3f max=%.3f",label,count,getMean(),min,max); }
+  }
+
+  /**
+   * Conjunction of range filters over columns, then count/aggregate/group-by.
+   * Bounds are compared exactly as longs on BYTE/INT/LONG/BRAIN columns (64-bit config hashes
+   * included) and as doubles on FLOAT ones.
+   */
+  public class Query {
+    private final ArrayList<String> columns = new ArrayList<String>();
+    private final ArrayList<double[]> bounds = new ArrayList<double[]>();
+    private final ArrayList<long[]> longBounds = new ArrayList<long[]>();
+    private Query(){}
+    public Query where(String column, double min, double max) {
+      //on an integer column, the integers within [min,max]; casts saturate at the long range
+      return where(column,min,max,(long)Math.ceil(min),(long)Math.floor(max));
+    }
+    public Query where(String column, long min, long max) {
+      return where(column,min,max,min,max);
+    }
+    private Query where(String column, double min, double max, long longMin, long longMax) {
+      index(column);
+      columns.add(column);
+      bounds.add(new double[]{min,max});
+      longBounds.add(new long[]{longMin,longMax});
+      return this;
+    }
+    public Query whereEquals(String column, long value) { return where(column,value,value); }
+    /** Matches nothing if the brain never played. */
+    public Query whereBrain(String column, String className) { return whereEquals(column,lookupBrain(className)); }
+
+    public long count() throws IOException { return aggregate(null,null).get(0).getCount(); }
+    public Group aggregate(String valueColumn) throws IOException { return aggregate(null,valueColumn).get(0); }
+    /** One group per distinct key, largest count first; brain columns are labelled by class name. */
+    public ArrayList<Group> groupBy(String keyColumn, String valueColumn) throws IOException { return aggregate(keyColumn,valueColumn); }
+
+    private ArrayList<Group> aggregate(String keyColumn, String valueColumn) throws IOException {
+      long total = rows(); //once: every column is mapped over the same rows, whatever flush() does meanwhile
+      int n = columns.size();
+      Column[] filters = new Column[n];
+      boolean[] exact = new boolean[n];
+      double[] mins = new double[n], maxs = new double[n];
+      long[] longMins = new long[n], longMaxs = new long[n];
+      for (int i=0;i<n;i++) {
+        filters[i]=column(columns.get(i),total);
+        exact[i]=filters[i].type!=Type.FLOAT;
+        mins[i]=bounds.get(i)[0];
+        maxs[i]=bounds.get(i)[1];
+        longMins[i]=longBounds.get(i)[0];
+        longMaxs[i]=longBounds.get(i)[1];
+      }
+      Column key = keyColumn==null?null:column(keyColumn,total);
+      Column value = valueColumn==null?null:column(valueColumn,total);
+      HashMap<Long,Group> groups = new HashMap<Long,Group>();
+      Group all = new Group("*");
+      scan:
+      for (long row=0;row<total;row++) {
+        for (int i=0;i<n;i++) {
+          if (exact[i]) {
+            long v = filters[i].getLong(row);
+            if (v<longMins[i] || v>longMaxs[i]) continue scan;
+          } else {
+            double v = filters[i].getDouble(row);
+            if (v<mins[i] || v>maxs[i]) continue scan;
+          }
+        }
+        Group g = all;
+        if (key!=null) {
+          long k = key.getLong(row);
+          g = groups.get(k);
+          if (g==null) {
+            g = new Group(key.type==Type.BRAIN?brainName((int)k):Long.toString(k));
+            groups.put(k,g);
+          }
+        }
+        g.add(value==null?0:value.getDouble(row));
+      }
+      ArrayList<Group> result = new ArrayList<Group>();
+      if (key==null) result.add(all);
+      else result.addAll(groups.values());
+      Collections.sort(result,(x,y)->Long.compare(y.count,x.count));
+      return result;
+    }
+  }
+
+  //---MAIN---//
+  /** Usage: ResultStore dir keyColumn valueColumn — group-by over everything stored. */
+  public static void main(String[] args) throws IOException {
+    ResultStore store = new ResultStore(new File(args.length>0?args[0]:"results"));
+    String key = args.length>1?args[1]:"teamAMain", value = args.length>2?args[2]:"teamAHealth";
+    System.out.println(store.rows()+" rows");
+    for (Group g : store.query().groupBy(key,value)) System.out.println(g);
+    store.close();
+  }
+}
@@ -0,0 +1,101 @@
+package supportGUI;
+
+import java.util.concurrent.locks.LockSupport;
+
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Steps an engine on its own thread and publishes a WorldSnapshot after every tick.
+ *
+ * The pace is BASEPERIOD (the Viewer's Swing timer period) divided by the speed multiplier;
+ * a multiplier of MAXSPEED or less runs ticks back to back. Readers call latest(), which is
+ * one volatile read, and never wait for the simulation nor slow it down.
+ */
+public class SimulationLoop implements Runnable {
+  //---PARAMETERS---//
+  public static final long BASEPERIOD = 10000000L; //ns, i.e. 100 ticks per second at 1x
+  public static final double MAXSPEED = 0;
+
+  //---VARIABLES---//
+  private final SimulatorEngine engine;
+  private volatile WorldSnapshot latest;
+  private volatile double speed = 1;
+  private volatile boolean paused = false;
+  private volatile Thread thread; //the one stepping thread; run() returns once it is replaced
+  private boolean activated = false; //brains are activated once per loop, not per start()
+  private long tick;
+
+  //---CONSTRUCTORS---//
+  public SimulationLoop(SimulatorEngine engine){
+    this.engine=engine;
+    this.latest=WorldSnapshot.capture(engine,0);
+  }
+
+  //---CONTROL---//
+  public synchronized void start() {
+    if (thread!=null) return;
+    if (!activated) {
+      HeadlessRunner.activate(engine);
+      activated=true;
+    }
+    Thread t = new Thread(this,"simulation");
+    t.setDaemon(true);
+    thread=t;
+    t.start();
+  }
+  /** Returns once the stepping thread has finished its tick, so a start() right after is safe. */
+  public synchronized void stop() {
+    Thread t = thread;
+    thread=null;
+    if (t==null) return;
+    LockSupport.unpark(t);
+    if (t==Thread.currentThread()) return;
+    boolean interrupted = false;
+    while (t.isAlive()) {
+      try {
+        t.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+  public void setPaused(boolean p) {
+    paused=p;
+    Thread t = thread;
+    if (t!=null) LockSupport.unpark(t);
+  }
+  public boolean isPaused() { return paused; }
+  /** Ticks per BASEPERIOD; MAXSPEED (0) for as fast as possible. */
+  public void setSpeed(double multiplier) {
+    speed=multiplier;
+    Thread t = thread;
+    if (t!=null) LockSupport.unpark(t);
+  }
+  public double getSpeed() { return speed; }
+  public WorldSnapshot latest() { return latest; }
+
+  //---LOOP---//
+  public void run() {
+    long due = System.nanoTime();
+    while (thread==Thread.currentThread()) {
+      if (paused) {
+        LockSupport.parkNanos(BASEPERIOD);
+        due = System.nanoTime();
+        continue;
+      }
+      double s = speed;
+      if (s>MAXSPEED) {
+        long now = System.nanoTime();
+        if (now<due) {
+          LockSupport.parkNanos(Math.min(due-now,BASEPERIOD*10));
+          continue;
+        }
+        due = Math.max(due,now-BASEPERIOD*10)+(long)(BASEPERIOD/s); //don't try to catch up on long stalls
+      }
+      HeadlessRunner.tick(engine);
+      tick++;
+      latest = WorldSnapshot.capture(engine,tick);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package supportGUI;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+/**
+ * Paints the latest WorldSnapshot of a SimulationLoop at its own frame rate.
+ *
+ * A Swing timer repaints every FRAMEPERIOD ms whatever the simulation speed; each frame reads
+ * the published snapshot once, so a slow frame only drops frames and never holds the engine.
+ */
+public class SnapshotView extends JPanel {
+  private static final long serialVersionUID = 1L;
+
+  //---PARAMETERS---//
+  private static final int FRAMEPERIOD = 16; //ms, about 60 frames per second
+  private static final Color TEAMA = new Color(0x51E77E), TEAMB = new Color(0xED1C7E);
+  private static final Color GROUND = new Color(0x2B2B2B), WALL = Color.LIGHT_GRAY;
+
+  //---VARIABLES---//
+  private final SimulationLoop loop;
+  private final Timer frames;
+  private long lastTick, lastNanos;
+  private double ticksPerSecond;
+
+  //---CONSTRUCTORS---//
+  public SnapshotView(SimulationLoop loop){
+    this.loop=loop;
+    setPreferredSize(new Dimension(1050,700));
+    setBackground(Color.BLACK);
+    frames = new Timer(FRAMEPERIOD,e->repaint());
+    frames.start();
+  }
+  public void stop() { frames.stop(); }
+
+  //---PAINT---//
+  public void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    WorldSnapshot w = loop.latest();
+    Graphics2D g2d = (Graphics2D)g.create();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,RenderingHints.VALUE_ANTIALIAS_ON);
+
+    double scale = Math.min((getWidth()-20)/(double)w.worldWidth,(getHeight()-40)/(double)w.worldHeight);
+    AffineTransform screen = g2d.getTransform();
+    g2d.translate(10,30);
+    g2d.scale(scale,scale);
+    g2d.setColor(GROUND);
+    g2d.fill(new Rectangle2D.Double(0,0,w.worldWidth,w.worldHeight));
+    g2d.setColor(WALL);
+    g2d.setStroke(new BasicStroke((float)(2/scale)));
+    g2d.draw(new Rectangle2D.Double(0,0,w.worldWidth,w.worldHeight));
+
+    for (int i=0;i<w.bots;i++) {
+      double r = w.botRadius[i], x = w.botX[i], y = w.botY[i];
+      boolean dead = w.botHealth[i]<=0;
+      Color c = w.botTeamA[i]?TEAMA:TEAMB;
+      g2d.setColor(dead?c.darker().darker():c);
+      g2d.fill(new Ellipse2D.Double(x-r,y-r,2*r,2*r));
+      if (dead) continue;
+      g2d.setColor(Color.WHITE);
+      g2d.draw(new Line2D.Double(x,y,x+r*Math.cos(w.botHeading[i]),y+r*Math.sin(w.botHeading[i])));
+      double ratio = w.botHealth[i]/w.botMaxHealth[i];
+      g2d.setColor(Color.RED);
+      g2d.fill(new Rectangle2D.Double(x-r,y-r-20,2*r,8));
+      g2d.setColor(Color.GREEN);
+      g2d.fill(new Rectangle2D.Double(x-r,y-r-20,2*r*ratio,8));
+    }
+    g2d.setColor(Color.YELLOW);
+    for (int i=0;i<w.bullets;i++) {
+      double r = Math.max(w.bulletRadius[i],3/scale);
+      g2d.fill(new Ellipse2D.Double(w.bulletX[i]-r,w.bulletY[i]-r,2*r,2*r));
+    }
+    g2d.setColor(Color.ORANGE);
+    for (int i=0;i<w.explosions;i++) {
+      double r = 4*Math.max(w.explosionRadius[i],3/scale);
+      g2d.fill(new Ellipse2D.Double(w.explosionX[i]-r,w.explosionY[i]-r,2*r,2*r));
+    }
+
+    g2d.setTransform(screen);
+    long now = System.nanoTime();
+    if (now-lastNanos>500000000L) {
+      ticksPerSecond = (w.tick-lastTick)*1e9/(now-lastNanos);
+      lastTick=w.tick;
+      lastNanos=now;
+    }
+    g2d.setColor(Color.WHITE);
+    String speed = loop.getSpeed()<=SimulationLoop.MAXSPEED?"max":loop.getSpeed()+"x";
+    g2d.drawString("tick "+w.tick+"   "+(int)ticksPerSecond+" ticks/s   speed "+speed+(loop.isPaused()?"   paused":""),10,20);
+    g2d.dispose();
+  }
+}
@@ -0,0 +1,149 @@
+package supportGUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Round robin of headless lockstep matches between main+secondary brain combinations.
+ *
+ * Every ordered pair of distinct combinations plays once per seed (so each side is played
+ * by both), and each result is handed to the rating ladder and appended to the result
+ * store as soon as the match ends. Matches stop early as the EndCondition allows; main
+ * stops them after QUIETTICKS ticks without damage or CYCLETICKS ticks of a repeating world.
+ * With several threads, matches run in parallel, each with its brains in a BrainIsolation
+ * loader; results are still rated and stored in the sequential order.
+ * Usage: Tournament ladderFile resultsDir ticks seeds Main+Secondary Main+Secondary [...]
+ */
+public class Tournament {
+  //---PARAMETERS---//
+  private static final int QUIETTICKS = 3000, CYCLETICKS = 1000;
+
+  //---VARIABLES---//
+  private final RatingLadder ladder;
+  private final ResultStore store;
+  private BrainReloader reloader;
+  private EndCondition end = EndCondition.DEFAULT;
+  private BrainIsolation isolation;
+  private int played;
+
+  //---CONSTRUCTORS---//
+  public Tournament(RatingLadder ladder){
+    this(ladder,null);
+  }
+  public Tournament(RatingLadder ladder, ResultStore store){
+    this.ladder=ladder;
+    this.store=store;
+  }
+
+  //---MATCHES---//
+  public static MatchResult play(MatchConfig config) {
+    return play(config,EndCondition.DEFAULT);
+  }
+  public static MatchResult play(MatchConfig config, EndCondition end) {
+    return play(config,end,null);
+  }
+  /** With isolation, the brains come from a loader of its pool, held for the match only. */
+  public static MatchResult play(MatchConfig config, EndCondition end, BrainIsolation isolation) {
+    ClassLoader brains = isolation==null?null:isolation.acquire(config);
+    try {
+      Lockstep match = new Lockstep(config,brains);
+      match.start();
+      EndCondition.Monitor monitor = end.watch(match.getEngine(),config.getMaxTicks());
+      EndCondition.Reason reason = config.getMaxTicks()>0?null:EndCondition.Reason.TIMEOUT;
+      while (reason==null) {
+        match.tick();
+        reason=monitor.afterTick(match.getEngine());
+      }
+      return MatchResult.of(config,match.getEngine(),monitor.getTick(),match.getStats(),reason);
+    } finally {
+      MatchConfig.useOnThisThread(null); //set by Lockstep.start; pool threads outlive the match
+      BrainFactory.useOnThisThread(null);
+      if (isolation!=null) isolation.release(config,brains);
+    }
+  }
+  /** Pick up recompiled brains between matches. */
+  public void setReloader(BrainReloader reloader) { this.reloader=reloader; }
+  public void setEndCondition(EndCondition end) { this.end=end; }
+  public EndCondition getEndCondition() { return end; }
+  /** Per-match brain loaders for the following matches; null to share BrainFactory's. */
+  public void setIsolation(BrainIsolation isolation) { this.isolation=isolation; }
+  public MatchResult playAndRate(MatchConfig config) throws IOException {
+    checkReload();
+    return record(play(config,end,isolation));
+  }
+  private void checkReload() {
+    if (reloader==null || !reloader.reloadIfChanged()) return;
+    if (isolation!=null) isolation.clear();
+    System.out.println("Brains reloaded (generation "+reloader.getGeneration()+")");
+  }
+  private MatchResult record(MatchResult result) throws IOException {
+    ladder.record(result);
+    if (store!=null) store.append(result);
+    played++;
+    return result;
+  }
+  public void roundRobin(String[] teams, int seeds, int maxTicks) throws IOException {
+    roundRobin(teams,seeds,maxTicks,1);
+  }
+  public void roundRobin(String[] teams, int seeds, int maxTicks, int threads) throws IOException {
+    for (String team : teams) BrainFactory.preload(team.split("\\+")); //fail before the first match, not hours into the run
+    ArrayList<MatchConfig> matches = new ArrayList<MatchConfig>();
+    for (int s=0;s<seeds;s++)
+      for (int i=0;i<teams.length;i++)
+        for (int j=0;j<teams.length;j++) {
+          if (i==j) continue;
+          String[] a = teams[i].split("\\+"), b = teams[j].split("\\+");
+          matches.add(new MatchConfig(a[0],a[1],b[0],b[1],s,maxTicks));
+        }
+    if (threads<=1) {
+      for (MatchConfig c : matches) System.out.println(playAndRate(c));
+      return;
+    }
+    checkReload();
+    //brains' statics must not cross threads; a default isolation lasts for this round robin only
+    final BrainIsolation matchIsolation = isolation!=null?isolation:new BrainIsolation();
+    final EndCondition matchEnd = end;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      ArrayList<Future<MatchResult>> results = new ArrayList<Future<MatchResult>>();
+      for (MatchConfig c : matches) results.add(pool.submit(() -> play(c,matchEnd,matchIsolation)));
+      for (Future<MatchResult> f : results) System.out.println(record(f.get()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Tournament interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+  public int getPlayed() { return played; }
+
+  //---MAIN---//
+  public static void main(String[] args) throws IOException {
+    if (args.length<6) {
+      System.out.println("usage: Tournament ladderFile resultsDir ticks seeds Main+Secondary Main+Secondary [...]");
+      return;
+    }
+    RatingLadder ladder = new RatingLadder(new File(args[0]));
+    ResultStore store = new ResultStore(new File(args[1]));
+    String[] teams = new String[args.length-4];
+    System.arraycopy(args,4,teams,0,teams.length);
+    Tournament tournament = new Tournament(ladder,store);
+    tournament.setEndCondition(EndCondition.DEFAULT.withQuietTicks(QUIETTICKS).withCycleTicks(CYCLETICKS));
+    tournament.roundRobin(teams,Integer.parseInt(args[3]),Integer.parseInt(args[2]),Runtime.getRuntime().availableProcessors());
+    store.close();
+    for (String prefix : new String[]{RatingLadder.TEAM,RatingLadder.MAIN,RatingLadder.SECONDARY}) {
+      System.out.println("=== "+prefix);
+      ArrayList<RatingLadder.Rating> ranking = ladder.ranking(prefix);
+      for (RatingLadder.Rating r : ranking) System.out.println(r);
+    }
+    ladder.close();
+  }
+}
@@ -0,0 +1,63 @@
+package supportGUI;
+
+import java.util.ArrayList;
+
+import robotsimulator.Bot;
+import robotsimulator.Bullet;
+import robotsimulator.SimulatorEngine;
+
+/**
+ * Immutable picture of the world after one tick, for painting on another thread.
+ *
+ * Built by the simulation thread right after the tick and published with a single volatile
+ * write (see SimulationLoop), so the renderer never touches live engine objects. Bots are in
+ * engine order; team A is the team of the first bot.
+ */
+public class WorldSnapshot {
+  //---VARIABLES---//
+  public final long tick;
+  public final int worldWidth, worldHeight;
+  public final int bots, bullets, explosions;
+  public final double[] botX, botY, botHeading, botHealth, botMaxHealth, botRadius;
+  public final boolean[] botTeamA;
+  public final String[] botLog;
+  public final double[] bulletX, bulletY, bulletRadius;
+  public final double[] explosionX, explosionY, explosionRadius;
+
+  //---CONSTRUCTORS---//
+  private WorldSnapshot(long tick, SimulatorEngine engine){
+    this.tick=tick;
+    worldWidth=engine.getWorldWidth();
+    worldHeight=engine.getWorldHeight();
+    ArrayList<Bot> list = engine.getBots();
+    bots=list.size();
+    botX=new double[bots]; botY=new double[bots]; botHeading=new double[bots];
+    botHealth=new double[bots]; botMaxHealth=new double[bots]; botRadius=new double[bots];
+    botTeamA=new boolean[bots];
+    botLog=new String[bots];
+    for (int i=0;i<bots;i++) {
+      Bot b = list.get(i);
+      botX[i]=b.getX(); botY[i]=b.getY(); botHeading[i]=b.getHeading();
+      botHealth[i]=Math.max(0,b.getHealth()); botMaxHealth[i]=b.getMaxHealth(); botRadius[i]=b.getRadius();
+      botTeamA[i]=MatchResult.isTeamA(b);
+      botLog[i]=b.getLogMessage();
+    }
+    ArrayList<Bullet> live = EngineSnapshot.liveBullets(engine);
+    bullets=live.size();
+    bulletX=new double[bullets]; bulletY=new double[bullets]; bulletRadius=new double[bullets];
+    for (int i=0;i<bullets;i++) {
+      Bullet u = live.get(i);
+      bulletX[i]=u.getX(); bulletY[i]=u.getY(); bulletRadius[i]=u.getRadius();
+    }
+    ArrayList<Bullet> boom = EngineSnapshot.liveExplosions(engine);
+    explosions=boom.size();
+    explosionX=new double[explosions]; explosionY=new double[explosions]; explosionRadius=new double[explosions];
+    for (int i=0;i<explosions;i++) {
+      Bullet u = boom.get(i);
+      explosionX[i]=u.getX(); explosionY[i]=u.getY(); explosionRadius[i]=u.getRadius();
+    }
+  }
+  public static WorldSnapshot capture(SimulatorEngine engine, long tick) {
+    return new WorldSnapshot(tick,engine);
+  }
+}
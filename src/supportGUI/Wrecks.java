@@ -0,0 +1,71 @@
+package supportGUI;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import characteristics.TeamLog;
+import robotsimulator.Bot;
+import robotsimulator.Brain;
+
+/**
+ * Destroyed bots, taken out of the simulation proper.
+ *
+ * A wreck only skips its action in the engine: its brain's step() still runs, so a dead bot
+ * keeps thinking, broadcasting stale reports and drawing from MatchRandom, and its mailbox
+ * keeps filling. Headless ticks stop stepping destroyed bots, and release() swaps the brain
+ * for an Inert one (keeping the last log line), so the original can be collected, and mutes
+ * the bot's TeamLog reader. The bot itself stays in the engine's list as an obstacle, which
+ * the radar and the front sensor report as a Wreck from its health alone.
+ */
+class Wrecks {
+  //---REFLECTION---//
+  private static final Field BOT_BRAIN;
+  static {
+    try {
+      BOT_BRAIN = Bot.class.getDeclaredField("brain");
+      BOT_BRAIN.setAccessible(true);
+    } catch (NoSuchFieldException e) {
+      throw new IllegalStateException("Unexpected simulator.jar", e);
+    }
+  }
+
+  //---BRAIN---//
+  static final class Inert extends Brain {
+    Inert(String log){ sendLogMessage(log); }
+    public void activate() {}
+    public void step() {}
+  }
+
+  //---CONSTRUCTORS---//
+  private Wrecks(){}
+
+  //---RELEASE---//
+  /** Release every destroyed bot not released yet. */
+  static void releaseDestroyed(ArrayList<Bot> bots) {
+    for (int i=0;i<bots.size();i++) {
+      Bot b = bots.get(i);
+      if (b.isDestroyed() && !isReleased(b)) release(b);
+    }
+  }
+  static boolean isReleased(Bot b) {
+    try {
+      return BOT_BRAIN.get(b) instanceof Inert;
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+  static void release(Bot b) {
+    try {
+      BOT_BRAIN.set(b,new Inert(b.getLogMessage()));
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot release wreck", e);
+    }
+    ArrayList<String> mailbox = EngineSnapshot.mailbox(b);
+    if (mailbox instanceof TeamLog.Reader) {
+      TeamLog.Reader reader = (TeamLog.Reader)mailbox;
+      reader.getLog().mute(reader.getMember());
+    } else {
+      mailbox.clear(); //the engine's own list keeps receiving
+    }
+  }
+}